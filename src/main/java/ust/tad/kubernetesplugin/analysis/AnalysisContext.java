@@ -0,0 +1,76 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
+import ust.tad.kubernetesplugin.models.tsdm.TechnologySpecificDeploymentModel;
+
+/**
+ * The state of a single analysis task.
+ * A new context is created for each task, so several tasks can be analyzed at the same time.
+ */
+public class AnalysisContext {
+
+    private TechnologySpecificDeploymentModel tsdm;
+
+    private TechnologyAgnosticDeploymentModel tadm;
+
+    private Set<Integer> newEmbeddedDeploymentModelIndexes = new HashSet<>();
+
+    private Set<KubernetesDeployment> deployments = new HashSet<>();
+
+    private Set<KubernetesService> services = new HashSet<>();
+
+
+    public AnalysisContext() {
+    }
+
+    public AnalysisContext(TechnologySpecificDeploymentModel tsdm, TechnologyAgnosticDeploymentModel tadm) {
+        this.tsdm = tsdm;
+        this.tadm = tadm;
+    }
+
+    public TechnologySpecificDeploymentModel getTsdm() {
+        return this.tsdm;
+    }
+
+    public void setTsdm(TechnologySpecificDeploymentModel tsdm) {
+        this.tsdm = tsdm;
+    }
+
+    public TechnologyAgnosticDeploymentModel getTadm() {
+        return this.tadm;
+    }
+
+    public void setTadm(TechnologyAgnosticDeploymentModel tadm) {
+        this.tadm = tadm;
+    }
+
+    public Set<Integer> getNewEmbeddedDeploymentModelIndexes() {
+        return this.newEmbeddedDeploymentModelIndexes;
+    }
+
+    public void setNewEmbeddedDeploymentModelIndexes(Set<Integer> newEmbeddedDeploymentModelIndexes) {
+        this.newEmbeddedDeploymentModelIndexes = newEmbeddedDeploymentModelIndexes;
+    }
+
+    public Set<KubernetesDeployment> getDeployments() {
+        return this.deployments;
+    }
+
+    public void setDeployments(Set<KubernetesDeployment> deployments) {
+        this.deployments = deployments;
+    }
+
+    public Set<KubernetesService> getServices() {
+        return this.services;
+    }
+
+    public void setServices(Set<KubernetesService> services) {
+        this.services = services;
+    }
+
+}
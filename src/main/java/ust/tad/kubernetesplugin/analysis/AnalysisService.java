@@ -1,45 +1,44 @@
 package ust.tad.kubernetesplugin.analysis;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ust.tad.kubernetesplugin.analysis.parser.ArchiveEntryReader;
+import ust.tad.kubernetesplugin.analysis.parser.ParseResult;
 import ust.tad.kubernetesplugin.analysistask.AnalysisTaskResponseSender;
 import ust.tad.kubernetesplugin.analysistask.Location;
-import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
-import ust.tad.kubernetesplugin.kubernetesmodel.deployment.ContainerPort;
-import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
-import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
-import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Label;
-import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
-import ust.tad.kubernetesplugin.kubernetesmodel.service.Selector;
-import ust.tad.kubernetesplugin.kubernetesmodel.service.ServicePort;
 import ust.tad.kubernetesplugin.models.ModelsService;
 import ust.tad.kubernetesplugin.models.tadm.InvalidPropertyValueException;
 import ust.tad.kubernetesplugin.models.tadm.InvalidRelationException;
-import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
 import ust.tad.kubernetesplugin.models.tsdm.DeploymentModelContent;
 import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
 import ust.tad.kubernetesplugin.models.tsdm.InvalidNumberOfContentException;
 import ust.tad.kubernetesplugin.models.tsdm.InvalidNumberOfLinesException;
-import ust.tad.kubernetesplugin.models.tsdm.Line;
+import ust.tad.kubernetesplugin.models.tsdm.LineRange;
 import ust.tad.kubernetesplugin.models.tsdm.TechnologySpecificDeploymentModel;
 
 @Service
 public class AnalysisService {
+
+    private static final Logger LOG =
+      LoggerFactory.getLogger(AnalysisService.class);
     
     @Autowired
     private ModelsService modelsService;
@@ -50,17 +49,19 @@ public class AnalysisService {
     @Autowired
     private TransformationService transformationService;
 
-    private static final Set<String> supportedFileExtensions = Set.of("yaml", "yml");
-    
-    private TechnologySpecificDeploymentModel tsdm;
+    @Autowired
+    private ManifestParserService manifestParserService;
 
-    private TechnologyAgnosticDeploymentModel tadm;
+    @Autowired
+    private ManifestFileWalker manifestFileWalker;
 
-    private Set<Integer> newEmbeddedDeploymentModelIndexes = new HashSet<>();
+    @Autowired
+    private Scheduler analysisScheduler;
 
-    private Set<KubernetesDeployment> deployments = new HashSet<>();
+    @Value("${models-service.line-ranges.enabled}")
+    private boolean lineRangesEnabled;
 
-    private Set<KubernetesService> services = new HashSet<>();
+    private static final Set<String> supportedFileExtensions = Set.of("yaml", "yml");
 
     /**
      * Start the analysis of the deployment model.
@@ -70,41 +71,66 @@ public class AnalysisService {
      * 4. Transform to EDMM entities and update tadm
      * 5. Send updated models to models service
      * 6. Send AnalysisTaskResponse or EmbeddedDeploymentModelAnalysisRequests if present 
+     * The steps are composed without blocking: the models service is called asynchronously,
+     * with both deployment models being fetched at the same time,
+     * while parsing, transforming and sending responses run on the bounded analysis scheduler.
+     * The state of the task is kept in its own analysis context, so many tasks can be in flight at once.
+     * If any step fails, the failure response is sent on the thread that signaled the failure,
+     * so it does not wait for a free thread of the analysis scheduler.
+     * The analysis starts when the returned Mono is subscribed to.
      * 
      * @param taskId
      * @param transformationProcessId
      * @param commands
      * @param locations
+     * @return a Mono completing when the response for the task was sent.
      */
-    public void startAnalysis(UUID taskId, UUID transformationProcessId, List<String> commands, List<Location> locations) {
-        this.newEmbeddedDeploymentModelIndexes.clear();
-        this.deployments.clear();
-        this.services.clear();
-        
-        TechnologySpecificDeploymentModel completeTsdm = modelsService.getTechnologySpecificDeploymentModel(transformationProcessId);
-        this.tsdm = getExistingTsdm(completeTsdm, locations);
-        if(tsdm == null) {
-            analysisTaskResponseSender.sendFailureResponse(taskId, "No technology-specific deployment model found!");
-            return;            
-        }
-        this.tadm = modelsService.getTechnologyAgnosticDeploymentModel(transformationProcessId);
-
-        try {
-            runAnalysis(locations);
-        } catch (URISyntaxException | IOException | InvalidNumberOfLinesException | InvalidAnnotationException | InvalidNumberOfContentException | InvalidPropertyValueException | InvalidRelationException e) { 
-            e.printStackTrace();
-            analysisTaskResponseSender.sendFailureResponse(taskId, e.getClass()+": "+e.getMessage());
-            return;
-        }
+    public Mono<Void> startAnalysis(UUID taskId, UUID transformationProcessId, List<String> commands, List<Location> locations) {
+        return Mono.zip(
+                getExistingTsdm(transformationProcessId, locations),
+                modelsService.getTechnologyAgnosticDeploymentModel(transformationProcessId)
+                    .switchIfEmpty(Mono.error(new IllegalStateException("No technology-agnostic deployment model found!"))))
+            .map(models -> new AnalysisContext(models.getT1(), models.getT2()))
+            .flatMap(context -> runAnalysis(context, locations)
+                .then(Mono.defer(() -> updateDeploymentModels(context)))
+                .publishOn(analysisScheduler)
+                .then(Mono.fromRunnable(() -> sendResponses(taskId, context))))
+            .onErrorResume(e -> {
+                LOG.error("Analysis of task " + taskId + " failed", e);
+                return Mono.fromRunnable(() -> analysisTaskResponseSender.sendFailureResponse(taskId, e.getClass()+": "+e.getMessage()));
+            })
+            .then();
+    }
 
-        updateDeploymentModels(this.tsdm, this.tadm);
+    /**
+     * Fetches the technology-specific deployment model and finds the model that contains the given locations.
+     * If the models service returns no model or none of the models contains the locations, the returned Mono fails,
+     * so that the failure response is sent by the single error handler of the analysis.
+     * 
+     * @param transformationProcessId
+     * @param locations
+     * @return a Mono emitting the technology-specific deployment model containing the locations.
+     */
+    private Mono<TechnologySpecificDeploymentModel> getExistingTsdm(UUID transformationProcessId, List<Location> locations) {
+        return modelsService.getTechnologySpecificDeploymentModel(transformationProcessId)
+            .switchIfEmpty(Mono.error(new IllegalStateException("No technology-specific deployment model found!")))
+            .publishOn(analysisScheduler)
+            .flatMap(completeTsdm -> {
+                TechnologySpecificDeploymentModel tsdm = getExistingTsdm(completeTsdm, locations);
+                if(tsdm == null) {
+                    return Mono.error(new IllegalStateException("No technology-specific deployment model found!"));
+                }
+                return Mono.just(tsdm);
+            });
+    }
 
-        if(newEmbeddedDeploymentModelIndexes.isEmpty()) {
+    private void sendResponses(UUID taskId, AnalysisContext context) {
+        if(context.getNewEmbeddedDeploymentModelIndexes().isEmpty()) {
             analysisTaskResponseSender.sendSuccessResponse(taskId);
         } else {
-            for (int index : newEmbeddedDeploymentModelIndexes) {
+            for (int index : context.getNewEmbeddedDeploymentModelIndexes()) {
                 analysisTaskResponseSender.sendEmbeddedDeploymentModelAnalysisRequestFromModel(
-                    this.tsdm.getEmbeddedDeploymentModels().get(index), taskId); 
+                    context.getTsdm().getEmbeddedDeploymentModels().get(index), taskId); 
             }
             analysisTaskResponseSender.sendSuccessResponse(taskId);
         }
@@ -127,19 +153,39 @@ public class AnalysisService {
         return null;
     }
     
-    private void updateDeploymentModels(TechnologySpecificDeploymentModel tsdm, TechnologyAgnosticDeploymentModel tadm) {
-        modelsService.updateTechnologySpecificDeploymentModel(tsdm);
-        modelsService.updateTechnologyAgnosticDeploymentModel(tadm);
+    private Mono<Void> updateDeploymentModels(AnalysisContext context) {
+        return modelsService.updateDeploymentModels(context.getTsdm(), context.getTadm());
+    }
+
+    /**
+     * Runs the analysis of the locations on the bounded analysis scheduler.
+     * 
+     * @param context
+     * @param locations
+     * @return a Mono completing when the analysis is finished.
+     */
+    private Mono<Void> runAnalysis(AnalysisContext context, List<Location> locations) {
+        return Mono.fromCallable(() -> {
+                analyzeLocations(context, locations);
+                return context;
+            })
+            .subscribeOn(analysisScheduler)
+            .then();
     }
 
     /**
      * Iterate over the locations and parse in all files that can be found.
      * If the URL ends with a ".", remove it.
      * The file has to have a fileextension contained in the supported fileextension Set, otherwise it will be ignored.
-     * If the given location is a directory, iterate over all contained files.
-     * Removes the deployment model content associated with the old directory locations
+     * If the location of a file specifies start and end line numbers, only these lines are parsed.
+     * If the given location is a directory, walk the directory tree and parse all contained files
+     * that match the configured include and exclude patterns.
+     * If the given location is a .zip, .tar.gz or .tgz archive, stream through it and parse all contained files
+     * with a supported file extension without extracting them.
+     * Removes the deployment model content associated with the old directory and archive locations
      * because it has been resolved to the contained files.
      * 
+     * @param context
      * @param locations
      * @throws InvalidNumberOfContentException
      * @throws InvalidAnnotationException
@@ -149,403 +195,101 @@ public class AnalysisService {
      * @throws InvalidPropertyValueException
      * @throws InvalidRelationException
      */
-    private void runAnalysis(List<Location> locations) throws URISyntaxException, IOException, InvalidNumberOfLinesException, InvalidAnnotationException, InvalidNumberOfContentException, InvalidPropertyValueException, InvalidRelationException {
+    private void analyzeLocations(AnalysisContext context, List<Location> locations) throws URISyntaxException, IOException, InvalidNumberOfLinesException, InvalidAnnotationException, InvalidNumberOfContentException, InvalidPropertyValueException, InvalidRelationException {
         for(Location location : locations) {
             String locationURLString = location.getUrl().toString().trim().replaceAll("\\.$", "");
             URL locationURL = new URL(locationURLString);
 
             if ("file".equals(locationURL.getProtocol()) && new File(locationURL.toURI()).isDirectory()) {
-                File directory = new File(locationURL.toURI());
-                for (File file : directory.listFiles()) {
-                    String fileExtension = StringUtils.getFilenameExtension(file.toURI().toURL().toString());
-                    if(fileExtension != null && supportedFileExtensions.contains(fileExtension)) {                        
-                        parseFile(file.toURI().toURL());
-                    }
-                }
-                DeploymentModelContent contentToRemove = new DeploymentModelContent();
-                for (DeploymentModelContent content : this.tsdm.getContent()) {
-                    if (content.getLocation().equals(location.getUrl())) {
-                        contentToRemove = content;
-                    }
-                }
-                this.tsdm.removeDeploymentModelContent(contentToRemove);
+                Path directory = Paths.get(locationURL.toURI());
+                parseFiles(context, manifestFileWalker.findFiles(directory, supportedFileExtensions));
+                removeDeploymentModelContent(context, location.getUrl());
+            } else if (ArchiveEntryReader.isArchive(locationURL.getPath())) {
+                parseArchive(context, locationURL);
+                removeDeploymentModelContent(context, location.getUrl());
             } else {
                 String fileExtension = StringUtils.getFilenameExtension(locationURLString);
                 if(supportedFileExtensions.contains(fileExtension)) {  
-                    parseFile(locationURL);
+                    addParseResult(context, locationURL, manifestParserService.parseFile(
+                        locationURL, location.getStartLineNumber(), location.getEndLineNumber()));
                 }
             }
         }
-        this.tadm = transformationService.transformInternalToTADM(this.tadm, this.deployments, this.services);
+        context.setTadm(transformationService.transformInternalToTADM(context.getTadm(), context.getDeployments(), context.getServices()));
     }
 
-    public void parseFile(URL url) throws IOException, InvalidNumberOfLinesException, InvalidAnnotationException {
-        DeploymentModelContent deploymentModelContent = new DeploymentModelContent();
-        deploymentModelContent.setLocation(url);
-
-        List<Line> lines = new ArrayList<>();
-        int lineNumber = 1;
-        BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
-        while(reader.ready()) {
-            String nextline = reader.readLine();
-            if (nextline.startsWith("kind:")) {
-                String kind = nextline.split("kind:")[1].trim();
-                kind = kind.split("#")[0].trim();
-                List<String> readInLines = new ArrayList<>();
-                int startLineNumber = lineNumber;
-                while (reader.ready() && !nextline.equals("---")) {
-                    readInLines.add(nextline);
-                    nextline = reader.readLine();
-                    lineNumber++;
-                }
-                switch (kind) {                    
-                    case "Service":                        
-                        lines.addAll(createService(startLineNumber, readInLines));
-                        break;
-                    case "StatefulSet":
-                    case "Deployment":
-                        lines.addAll(createDeployment(startLineNumber, readInLines));
-                        break;               
-                    default:
-                        lines.addAll(createLinesForUnknownType(lineNumber, readInLines));
-                        break;
-                }
-            }
-            lineNumber++;
-        }
-        reader.close();
-
-        if(!lines.isEmpty()) {
-            deploymentModelContent.setLines(lines);
-            this.tsdm.addDeploymentModelContent(deploymentModelContent);
+    /**
+     * Parses the given files, possibly in parallel, and adds their results to the analysis in the order of the files.
+     * 
+     * @param context
+     * @param urls
+     * @throws IOException
+     * @throws InvalidNumberOfLinesException
+     * @throws InvalidAnnotationException
+     */
+    private void parseFiles(AnalysisContext context, List<URL> urls) throws IOException, InvalidNumberOfLinesException, InvalidAnnotationException {
+        List<ParseResult> parseResults = manifestParserService.parseFiles(urls);
+        for (int i = 0; i < urls.size(); i++) {
+            addParseResult(context, urls.get(i), parseResults.get(i));
         }
     }
 
-    private List<Line> createLinesForUnknownType(int lineNumber, List<String> readInLines) throws InvalidAnnotationException {
-        List<Line> lines = new ArrayList<>();
-        for (int i = lineNumber; i <= readInLines.size()+lineNumber; i++) {
-            lines.add(new Line(i, 0D, true));
+    /**
+     * Parses the manifests contained in an archive and adds their results to the analysis in the order of the entries.
+     * The deployment model contents of the entries are located by the jar-style URLs of the entries.
+     * 
+     * @param context
+     * @param archiveUrl
+     * @throws IOException
+     * @throws InvalidNumberOfLinesException
+     * @throws InvalidAnnotationException
+     */
+    private void parseArchive(AnalysisContext context, URL archiveUrl) throws IOException, InvalidNumberOfLinesException, InvalidAnnotationException {
+        for (Map.Entry<String, ParseResult> entry : manifestParserService.parseArchive(archiveUrl, supportedFileExtensions).entrySet()) {
+            addParseResult(context, ManifestParserService.getEntryURL(archiveUrl, entry.getKey()), entry.getValue());
         }
-        return lines;
     }
 
-    private List<Line> createService(int lineNumber, List<String> readInLines) throws InvalidAnnotationException {
-        List<Line> lines = new ArrayList<>();
-        KubernetesService kubernetesService = new KubernetesService();
-        ListIterator<String> linesIterator = readInLines.listIterator();
-
-        while (linesIterator.hasNext()) {
-            String currentLine = linesIterator.next();
-            if (currentLine.startsWith("metadata:")) {
-                lines.add(new Line(lineNumber, 1D, true));
-                while (linesIterator.hasNext() && (currentLine = linesIterator.next()).startsWith("  ")) {
-                    lineNumber++;
-                    if (currentLine.trim().startsWith("labels:")) {
-                        lines.add(new Line(lineNumber, 1D, true));
-                        while(linesIterator.hasNext() && linesIterator.next().startsWith("    ")) {
-                            lineNumber++;
-                            lines.add(new Line(lineNumber, 1D, true));
-                        }
-                        if (linesIterator.hasNext()) {
-                            linesIterator.previous();                                
-                        }
-                    } else if (currentLine.trim().startsWith("name:")) {
-                        String name = currentLine.split("name:")[1].trim();
-                        kubernetesService.setName(name);
-                        lines.add(new Line(lineNumber, 1D, true));
-                    } else if (currentLine.trim().startsWith("#")) {
-                        continue;
-                    }
-                    else {
-                        lines.add(new Line(lineNumber, 0D, true));
-                    }
-                }
-                if (linesIterator.hasNext()) {
-                    linesIterator.previous();                                
-                }
-            } else if (currentLine.startsWith("spec:")) {
-                lines.add(new Line(lineNumber, 1D, true));
-                while (linesIterator.hasNext() && (currentLine = linesIterator.next()).startsWith("  ")) {
-                    lineNumber++;
-                    if (currentLine.trim().startsWith("ports:")) { 
-                        lines.add(new Line(lineNumber, 1D, true));
-                        while(linesIterator.hasNext() && (currentLine = linesIterator.next()).matches("^\\s*-.*")) {          
-                            ServicePort servicePort = new ServicePort();
-                            currentLine = currentLine.replaceFirst("-", " ");
-                            int numberOfWhitespaces = currentLine.length() - currentLine.stripLeading().length();
-                            String leadingWhiteSpaces = currentLine.substring(0, numberOfWhitespaces);
-                            while(currentLine.startsWith(leadingWhiteSpaces)) {
-                                lineNumber++;
-                                String[] lineSplit = currentLine.split(":");
-                                if (currentLine.trim().startsWith("name:")) {
-                                    lines.add(new Line(lineNumber, 1D, true));
-                                    servicePort.setName(lineSplit[1].trim());
-                                } else if (currentLine.trim().startsWith("port:")) {
-                                    lines.add(new Line(lineNumber, 1D, true));
-                                    servicePort.setPort(Integer.parseInt(lineSplit[1].trim()));
-                                } else if (currentLine.trim().startsWith("targetPort:")) {
-                                    lines.add(new Line(lineNumber, 1D, true));
-                                    servicePort.setTargetPort(lineSplit[1].trim());                                    
-                                } else {
-                                    lines.add(new Line(lineNumber, 0D, true));
-                                }
-
-                                if (linesIterator.hasNext()) {
-                                    currentLine = linesIterator.next();
-                                } else {
-                                    break;
-                                }
-                            }
-                            if (linesIterator.hasNext()) {
-                                linesIterator.previous();                                
-                            }
-                            Set<ServicePort> servicePorts = kubernetesService.getServicePorts();
-                            servicePorts.add(servicePort);
-                            kubernetesService.setServicePorts(servicePorts);
-                        }
-                        if (linesIterator.hasNext()) {
-                            linesIterator.previous();                                
-                        }
-                    } else if (currentLine.trim().startsWith("selector:")) {
-                        lines.add(new Line(lineNumber, 1D, true));
-                        while(linesIterator.hasNext() && (currentLine = linesIterator.next()).startsWith("    ")) {
-                            lineNumber++;
-                            String[] lineSplit = currentLine.split(":");
-                            Selector selector = new Selector(lineSplit[0].trim(), lineSplit[1].trim());
-                            Set<Selector> selectors = kubernetesService.getSelectors();
-                            selectors.add(selector);
-                            kubernetesService.setSelectors(selectors);
-                            lines.add(new Line(lineNumber, 1D, true));
-                        }
-                        if (linesIterator.hasNext()) {
-                            linesIterator.previous();                                
-                        }
-                    } else {
-                        lines.add(new Line(lineNumber, 0D, true));
-                    }
-                }
-                if (linesIterator.hasNext()) {
-                    linesIterator.previous();                                
-                }
-            } else if (currentLine.startsWith("kind:")) {
-                lines.add(new Line(lineNumber, 1D, true));
-            } else {
-                lines.add(new Line(lineNumber, 0D, true));
+    /**
+     * Removes the deployment model content of a location that has been resolved to the contained files.
+     * 
+     * @param context
+     * @param url
+     * @throws InvalidNumberOfContentException
+     */
+    private void removeDeploymentModelContent(AnalysisContext context, URL url) throws InvalidNumberOfContentException {
+        DeploymentModelContent contentToRemove = new DeploymentModelContent();
+        for (DeploymentModelContent content : context.getTsdm().getContent()) {
+            if (content.getLocation().equals(url)) {
+                contentToRemove = content;
             }
-            lineNumber++;
         }
-        this.services.add(kubernetesService);
-        return lines;
+        context.getTsdm().removeDeploymentModelContent(contentToRemove);
     }
 
-    private List<Line> createDeployment(int lineNumber, List<String> readInLines) throws InvalidAnnotationException {
-        List<Line> lines = new ArrayList<>();
-        KubernetesDeployment kubernetesDeployment  = new KubernetesDeployment();
-        ListIterator<String> linesIterator = readInLines.listIterator();
-
-        while (linesIterator.hasNext()) {
-            String currentLine = linesIterator.next();
-            if (currentLine.startsWith("metadata:")) {
-                lines.add(new Line(lineNumber, 1D, true));
-                while (linesIterator.hasNext() && (currentLine = linesIterator.next()).startsWith("  ")) {
-                    lineNumber++;
-                    if (currentLine.trim().startsWith("labels:")) {
-                        lines.add(new Line(lineNumber, 1D, true));
-                        while(linesIterator.hasNext() && (currentLine = linesIterator.next()).startsWith("    ")) {
-                            lineNumber++;
-                            String[] lineSplit = currentLine.split(":");
-                            Label label = new Label(lineSplit[0].trim(), lineSplit[1].trim());
-                            Set<Label> labels = kubernetesDeployment.getLabels();
-                            labels.add(label);
-                            kubernetesDeployment.setLabels(labels);
-                            lines.add(new Line(lineNumber, 1D, true));
-                        }
-                        if (linesIterator.hasNext()) {
-                            linesIterator.previous();                                
-                        }
-                    } else if (currentLine.trim().startsWith("name:")) {
-                        String name = currentLine.split("name:")[1].trim();
-                        kubernetesDeployment.setName(name);
-                        lines.add(new Line(lineNumber, 1D, true));
-                    } else if (currentLine.trim().startsWith("#")) {
-                        continue;
-                    }
-                    else {
-                        lines.add(new Line(lineNumber, 0D, true));
-                    }
-                }
-                if (linesIterator.hasNext()) {
-                    linesIterator.previous();                                
-                }
-            } else if (currentLine.startsWith("spec:")) {
-                lines.add(new Line(lineNumber, 1D, true));
-                while (linesIterator.hasNext() && (currentLine = linesIterator.next()).startsWith("  ")) {
-                    lineNumber++;                    
-                    if (currentLine.trim().startsWith("replicas:")) { 
-                        lines.add(new Line(lineNumber, 1D, true));
-                        int replicas = Integer.parseInt(currentLine.split("replicas:")[1].trim());
-                        kubernetesDeployment.setReplicas(replicas);
-                    } else if (currentLine.trim().startsWith("selector:")) {
-                        lines.add(new Line(lineNumber, 1D, true));
-                        while(linesIterator.hasNext() && linesIterator.next().startsWith("    ")) {
-                            lineNumber++;
-                            lines.add(new Line(lineNumber, 1D, true));
-                        }
-                        if (linesIterator.hasNext()) {
-                            linesIterator.previous();                                
-                        }
-                    } else if (currentLine.trim().startsWith("template:")) {
-                        lines.add(new Line(lineNumber, 1D, true));
-                        while(linesIterator.hasNext() && (currentLine = linesIterator.next()).startsWith("    ")) {
-                            lineNumber++;
-                            if (currentLine.trim().startsWith("metadata:")) {
-                                lines.add(new Line(lineNumber, 1D, true));
-                                while(linesIterator.hasNext() && linesIterator.next().startsWith("      ")) {
-                                    lineNumber++;
-                                    lines.add(new Line(lineNumber, 1D, true));
-                                }
-                                if (linesIterator.hasNext()) {
-                                    linesIterator.previous();                                
-                                }
-                            } else if (currentLine.trim().startsWith("spec:")) {
-                                lines.add(new Line(lineNumber, 1D, true));
-                                while(linesIterator.hasNext() && (currentLine = linesIterator.next()).startsWith("      ")) {
-                                    lineNumber++;
-                                    if (currentLine.trim().startsWith("containers:")) {
-                                        lines.add(new Line(lineNumber, 1D, true));
-                                        while(linesIterator.hasNext() && (currentLine = linesIterator.next()).matches("^\\s*-.*")) {          
-                                            Container container = new Container();
-                                            currentLine = currentLine.replaceFirst("-", " ");
-                                            int numberOfWhitespaces = currentLine.length() - currentLine.stripLeading().length();
-                                            String leadingWhiteSpaces = currentLine.substring(0, numberOfWhitespaces);
-                                            while(currentLine.startsWith(leadingWhiteSpaces)) {
-                                                lineNumber++;
-                                                if (currentLine.trim().startsWith("name:")) {
-                                                    lines.add(new Line(lineNumber, 1D, true));
-                                                    container.setName(currentLine.split("name:")[1].trim());
-                                                } else if (currentLine.trim().startsWith("image:")) {
-                                                    lines.add(new Line(lineNumber, 1D, true));
-                                                    container.setImage(currentLine.split("image:")[1].trim());
-                                                } else if (currentLine.trim().startsWith("ports:")) {
-                                                    lines.add(new Line(lineNumber, 1D, true));
-                                                    Set<ContainerPort> containerPorts = new HashSet<>();
-                                                    while(linesIterator.hasNext() && (currentLine = linesIterator.next()).matches("^\\s*-.*")) {          
-                                                        ContainerPort containerPort = new ContainerPort();
-                                                        currentLine = currentLine.replaceFirst("-", " ");
-                                                        int numberOfWhitespacesPort = currentLine.length() - currentLine.stripLeading().length();
-                                                        String leadingWhiteSpacesPort = currentLine.substring(0, numberOfWhitespacesPort);
-                                                        while(currentLine.startsWith(leadingWhiteSpacesPort)) {
-                                                            lineNumber++;
-                                                            String[] lineSplitPort = currentLine.split(":");
-                                                            if (currentLine.trim().startsWith("name:")) {
-                                                                lines.add(new Line(lineNumber, 1D, true));
-                                                                containerPort.setName(lineSplitPort[1].trim());
-                                                            } else if (currentLine.trim().startsWith("containerPort:")) {
-                                                                lines.add(new Line(lineNumber, 1D, true));
-                                                                containerPort.setPort(Integer.parseInt(lineSplitPort[1].trim()));
-                                                            } else {
-                                                                lines.add(new Line(lineNumber, 0D, true));
-                                                            }                            
-                                                            if (linesIterator.hasNext()) {
-                                                                currentLine = linesIterator.next();
-                                                            } else {
-                                                                break;
-                                                            }
-                                                        }
-                                                        if (linesIterator.hasNext()) {
-                                                            linesIterator.previous();                                
-                                                        }
-                                                        containerPorts.add(containerPort);
-                                                    }
-                                                    if (linesIterator.hasNext()) {
-                                                        linesIterator.previous();                                
-                                                    }
-                                                    container.setContainerPorts(containerPorts);                                    
-                                                } else if (currentLine.trim().startsWith("env:")) {
-                                                    lines.add(new Line(lineNumber, 1D, true));
-                                                    Set<EnvironmentVariable> environmentVariables = new HashSet<>();
-                                                    while(linesIterator.hasNext() && (currentLine = linesIterator.next()).matches("^\\s*-.*")) {          
-                                                        EnvironmentVariable environmentVariable = new EnvironmentVariable();
-                                                        currentLine = currentLine.replaceFirst("-", " ");
-                                                        int numberOfWhitespacesEnv = currentLine.length() - currentLine.stripLeading().length();
-                                                        String leadingWhiteSpacesEnv = currentLine.substring(0, numberOfWhitespacesEnv);
-                                                        while(currentLine.startsWith(leadingWhiteSpacesEnv)) {
-                                                            lineNumber++;
-                                                            if (currentLine.trim().startsWith("name:")) {
-                                                                lines.add(new Line(lineNumber, 1D, true));
-                                                                environmentVariable.setKey(currentLine.split("name:")[1].trim());
-                                                            } else if (currentLine.trim().startsWith("value:")) {
-                                                                lines.add(new Line(lineNumber, 1D, true));
-                                                                environmentVariable.setValue(currentLine.split("value:")[1].trim());
-                                                            } else {
-                                                                lines.add(new Line(lineNumber, 0D, true));
-                                                            }                            
-                                                            if (linesIterator.hasNext()) {
-                                                                currentLine = linesIterator.next();
-                                                            } else {
-                                                                break;
-                                                            }
-                                                        }
-                                                        if (linesIterator.hasNext()) {
-                                                            linesIterator.previous();                                
-                                                        }
-                                                        if (environmentVariable.getKey() != null && environmentVariable.getValue() != null) {
-                                                            environmentVariables.add(environmentVariable);
-                                                        }
-                                                    }
-                                                    if (linesIterator.hasNext()) {
-                                                        linesIterator.previous();                                
-                                                    }
-                                                    container.setEnvironmentVariables(environmentVariables);                                  
-                                                } else {
-                                                    lines.add(new Line(lineNumber, 0D, true));
-                                                }                
-                                                if (linesIterator.hasNext()) {
-                                                    currentLine = linesIterator.next();
-                                                } else {
-                                                    break;
-                                                }
-                                            }
-                                            if (linesIterator.hasNext()) {
-                                                linesIterator.previous();                                
-                                            }
-                                            Set<Container> containerSet = kubernetesDeployment.getContainer();
-                                            containerSet.add(container);
-                                            kubernetesDeployment.setContainer(containerSet);
-                                        }
-                                        if (linesIterator.hasNext()) {
-                                            linesIterator.previous();                                
-                                        }
-                                    } else {
-                                        lines.add(new Line(lineNumber, 0D, true));
-                                    }
-                                }
-                                if (linesIterator.hasNext()) {
-                                    linesIterator.previous();                                
-                                }
-                            } else {                                
-                                lines.add(new Line(lineNumber, 0D, true));
-                            }
-                        }
-                        if (linesIterator.hasNext()) {
-                            linesIterator.previous();                                
-                        }
-                    } else {
-                        lines.add(new Line(lineNumber, 0D, true));
-                    }
-                }
-                if (linesIterator.hasNext()) {
-                    linesIterator.previous();                                
-                }
-            }else if (currentLine.startsWith("kind:")) {
-                lines.add(new Line(lineNumber, 1D, true));
+    /**
+     * Adds the deployments and services of a parsed file to the analysis.
+     * If lines were annotated, adds a deployment model content for the file to the technology-specific deployment model.
+     * The annotations are stored as line ranges if the models service accepts them, otherwise as single lines.
+     * 
+     * @param context
+     * @param url
+     * @param parseResult
+     * @throws InvalidNumberOfLinesException
+     */
+    private void addParseResult(AnalysisContext context, URL url, ParseResult parseResult) throws InvalidNumberOfLinesException {
+        context.getDeployments().addAll(parseResult.getDeployments());
+        context.getServices().addAll(parseResult.getServices());
+        if(!parseResult.getLineRanges().isEmpty()) {
+            DeploymentModelContent deploymentModelContent = new DeploymentModelContent();
+            deploymentModelContent.setLocation(url);
+            if (lineRangesEnabled) {
+                deploymentModelContent.setLineRanges(parseResult.getLineRanges());
             } else {
-                lines.add(new Line(lineNumber, 0D, true));
-            }            
-            lineNumber++;
+                deploymentModelContent.setLines(LineRange.toLines(parseResult.getLineRanges()));
+            }
+            context.getTsdm().addDeploymentModelContent(deploymentModelContent);
         }
-        this.deployments.add(kubernetesDeployment);
-        return lines;
     }
 
     
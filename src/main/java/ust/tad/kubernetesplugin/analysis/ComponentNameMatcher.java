@@ -0,0 +1,121 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Aho-Corasick automaton over a list of component names.
+ * Finds the longest component name contained in a text in a single pass over the text.
+ * If several names of the same length are contained, the one that comes first in the list is chosen.
+ */
+public class ComponentNameMatcher {
+
+    private final List<String> names = new ArrayList<>();
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+
+    private int[] failureLinks;
+
+    /**
+     * The index of the best name that ends at a state, including the names reachable through failure links,
+     * or -1 if no name ends there.
+     */
+    private int[] bestNames;
+
+
+    /**
+     * Builds the automaton for the given component names.
+     *
+     * @param componentNames
+     */
+    public ComponentNameMatcher(List<String> componentNames) {
+        transitions.add(new HashMap<>());
+        List<Integer> ownNames = new ArrayList<>();
+        ownNames.add(-1);
+        for (String componentName : componentNames) {
+            int state = 0;
+            for (int i = 0; i < componentName.length(); i++) {
+                Integer next = transitions.get(state).get(componentName.charAt(i));
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.add(new HashMap<>());
+                    ownNames.add(-1);
+                    transitions.get(state).put(componentName.charAt(i), next);
+                }
+                state = next;
+            }
+            if (ownNames.get(state) < 0) {
+                ownNames.set(state, names.size());
+                names.add(componentName);
+            }
+        }
+
+        failureLinks = new int[transitions.size()];
+        bestNames = new int[transitions.size()];
+        bestNames[0] = ownNames.get(0);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(0).values()) {
+            failureLinks[child] = 0;
+            bestNames[child] = better(ownNames.get(child), bestNames[0]);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> transition : transitions.get(state).entrySet()) {
+                int child = transition.getValue();
+                failureLinks[child] = next(failureLinks[state], transition.getKey());
+                bestNames[child] = better(ownNames.get(child), bestNames[failureLinks[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Scans the text once and returns the longest contained component name.
+     *
+     * @param text
+     * @return an Optional with the matched component name.
+     */
+    public Optional<String> findLongestMatch(String text) {
+        int best = bestNames[0];
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            best = better(best, bestNames[state]);
+        }
+        return best < 0 ? Optional.empty() : Optional.of(names.get(best));
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            Integer next = transitions.get(state).get(c);
+            if (next != null) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failureLinks[state];
+        }
+    }
+
+    private int better(int first, int second) {
+        if (first < 0) {
+            return second;
+        }
+        if (second < 0) {
+            return first;
+        }
+        int lengthComparison = Integer.compare(names.get(first).length(), names.get(second).length());
+        if (lengthComparison != 0) {
+            return lengthComparison > 0 ? first : second;
+        }
+        return Math.min(first, second);
+    }
+
+}
@@ -0,0 +1,119 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.util.Collection;
+
+/**
+ * Bloom filter over the leading n-grams of component and service names.
+ * Every value that contains a name also contains the leading n-gram of the name,
+ * so a value in which none of its n-grams is contained in the filter cannot contain any of the names.
+ * Such values are ruled out with a few bit lookups per character before any name matching runs.
+ * The n-gram length is the length of the shortest name, but at most {@value #MAX_GRAM_LENGTH}.
+ */
+public class ComponentNamePrefilter {
+
+    private static final int MAX_GRAM_LENGTH = 4;
+
+    private static final int BITS_PER_NAME = 16;
+
+    private static final int NUMBER_OF_HASHES = 3;
+
+    private final int gramLength;
+
+    private final long[] bits;
+
+    private final int mask;
+
+    private final boolean empty;
+
+
+    /**
+     * Creates the filter for the given names.
+     *
+     * @param names the names of the components and services.
+     */
+    public ComponentNamePrefilter(Collection<String> names) {
+        int minLength = MAX_GRAM_LENGTH;
+        int numberOfNames = 0;
+        for (String name : names) {
+            if (name != null) {
+                minLength = Math.min(minLength, name.length());
+                numberOfNames++;
+            }
+        }
+        this.gramLength = minLength;
+        this.empty = numberOfNames == 0;
+
+        int numberOfBits = 64;
+        while (numberOfBits < numberOfNames * BITS_PER_NAME) {
+            numberOfBits <<= 1;
+        }
+        this.bits = new long[numberOfBits / 64];
+        this.mask = numberOfBits - 1;
+        if (gramLength > 0) {
+            for (String name : names) {
+                if (name != null) {
+                    long gram = 0;
+                    for (int i = 0; i < gramLength; i++) {
+                        gram = gram << 16 | Character.toLowerCase(name.charAt(i));
+                    }
+                    add(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the value may contain one of the names, ignoring case.
+     * A result of false is definite, a result of true may be a false positive.
+     *
+     * @param value
+     * @return false if the value contains none of the names.
+     */
+    public boolean mightContainName(String value) {
+        if (empty) {
+            return false;
+        }
+        if (gramLength == 0) {
+            return true;
+        }
+        long gramMask = gramLength == MAX_GRAM_LENGTH ? -1L : (1L << (16 * gramLength)) - 1;
+        long gram = 0;
+        for (int i = 0; i < value.length(); i++) {
+            gram = (gram << 16 | Character.toLowerCase(value.charAt(i))) & gramMask;
+            if (i >= gramLength - 1 && contains(gram)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(long gram) {
+        long hash = mix(gram);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < NUMBER_OF_HASHES; i++) {
+            int bit = (first + i * second) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean contains(long gram) {
+        long hash = mix(gram);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < NUMBER_OF_HASHES; i++) {
+            int bit = (first + i * second) & mask;
+            if ((bits[bit >>> 6] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+}
@@ -0,0 +1,138 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the host of a connection string, URL or host property to the name of a component or service.
+ * The host is extracted once per value and looked up in a hash map of the known DNS names,
+ * so a value only matches a name that is exactly its host.
+ * Hosts in the cluster-internal forms "name.namespace", "name.namespace.svc" and
+ * "name.namespace.svc.cluster.local" are resolved by their first label.
+ */
+public class ConnectionHostIndex {
+
+    private static final String[] CLUSTER_DOMAIN_SUFFIXES = {".svc.cluster.local", ".svc"};
+
+    private static final String[] HOST_KEYS = {"server", "host", "data source", "address", "addr"};
+
+    private static final Pattern HOST_AND_PORT = Pattern.compile("(?i)([a-z0-9]([a-z0-9.-]*[a-z0-9])?|\\[[0-9a-f:.]+\\])(:[0-9]+)?");
+
+    private final Map<String, String> namesByHost = new HashMap<>();
+
+
+    /**
+     * Creates the index for the given names, the first name wins if several names only differ in case.
+     *
+     * @param names the names of the components and services.
+     */
+    public ConnectionHostIndex(Collection<String> names) {
+        for (String name : names) {
+            if (name != null) {
+                namesByHost.putIfAbsent(name.toLowerCase(Locale.ROOT), name);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the component or service with the given host name.
+     *
+     * @param host a lower-case host as returned by {@link #parseHost(String)}.
+     * @return an Optional with the name or an empty Optional if the host is unknown.
+     */
+    public Optional<String> findName(String host) {
+        String name = namesByHost.get(host);
+        if (name != null) {
+            return Optional.of(name);
+        }
+        String serviceHost = host;
+        for (String suffix : CLUSTER_DOMAIN_SUFFIXES) {
+            if (serviceHost.endsWith(suffix)) {
+                serviceHost = serviceHost.substring(0, serviceHost.length() - suffix.length());
+                break;
+            }
+        }
+        int namespaceSeparator = serviceHost.indexOf('.');
+        if (namespaceSeparator > 0 && serviceHost.indexOf('.', namespaceSeparator + 1) < 0) {
+            return Optional.ofNullable(namesByHost.get(serviceHost.substring(0, namespaceSeparator)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Extracts the lower-case host from a URL, a JDBC connection string, a "key=value;" connection string
+     * or a value that is a single "host[:port]" token.
+     * Any other value, e.g. free text, has no host, so that it can be searched for contained names instead.
+     *
+     * @param value
+     * @return an Optional with the host or an empty Optional if the value is not shaped like a host.
+     */
+    public static Optional<String> parseHost(String value) {
+        String rest = value.trim();
+        boolean jdbc = rest.regionMatches(true, 0, "jdbc:", 0, 5);
+        if (jdbc) {
+            rest = rest.substring(5);
+        }
+        int schemeEnd = rest.indexOf("://");
+        if (schemeEnd >= 0) {
+            rest = rest.substring(schemeEnd + 3);
+        } else if (rest.indexOf('=') >= 0) {
+            rest = findHostInKeyValuePairs(rest);
+        } else if (jdbc && rest.indexOf('@') >= 0) {
+            rest = rest.substring(rest.lastIndexOf('@') + 1);
+            if (rest.startsWith("//")) {
+                rest = rest.substring(2);
+            }
+        } else if (jdbc || !HOST_AND_PORT.matcher(rest).matches()) {
+            return Optional.empty();
+        }
+        if (rest == null) {
+            return Optional.empty();
+        }
+
+        int userInfoEnd = rest.lastIndexOf('@', indexOfAny(rest, "/?#", 0));
+        if (userInfoEnd >= 0) {
+            rest = rest.substring(userInfoEnd + 1);
+        }
+        if (rest.startsWith("tcp:")) {
+            rest = rest.substring(4);
+        }
+        String host;
+        if (rest.startsWith("[")) {
+            int end = rest.indexOf(']');
+            host = end < 0 ? rest.substring(1) : rest.substring(1, end);
+        } else {
+            host = rest.substring(0, indexOfAny(rest, ":/?#,;\\ ", 0));
+        }
+        return host.isEmpty() ? Optional.empty() : Optional.of(host.toLowerCase(Locale.ROOT));
+    }
+
+    private static String findHostInKeyValuePairs(String value) {
+        for (String pair : value.split(";")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                String key = pair.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+                for (String hostKey : HOST_KEYS) {
+                    if (hostKey.equals(key)) {
+                        return pair.substring(separator + 1).trim();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int indexOfAny(String value, String characters, int from) {
+        for (int i = from; i < value.length(); i++) {
+            if (characters.indexOf(value.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return value.length();
+    }
+
+}
@@ -0,0 +1,85 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ust.tad.kubernetesplugin.models.tadm.Artifact;
+import ust.tad.kubernetesplugin.models.tadm.Confidence;
+
+/**
+ * Interning cache for the parsed references of container images.
+ * Each image is parsed once into an immutable image reference that is shared by all components with this image.
+ * The EDMM artifacts are mutable and belong to a single component, so each component gets its own artifact,
+ * which shares the interned image string of the reference as its name.
+ * Once the cache holds the maximum number of images, further images are parsed on every use but not added.
+ * The numbers of hits and misses and the hit ratio are published as metrics.
+ */
+@Component
+public class ImageArtifactCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${analysis.transformation.image-cache.max-entries}")
+    private int maxEntries;
+
+    private final Map<String, ImageReference> imageReferences = new ConcurrentHashMap<>();
+
+    private Counter hits;
+
+    private Counter misses;
+
+    @PostConstruct
+    private void init() {
+        this.hits = meterRegistry.counter("analysis.transformation.image-cache", "result", "hit");
+        this.misses = meterRegistry.counter("analysis.transformation.image-cache", "result", "miss");
+        meterRegistry.gauge("analysis.transformation.image-cache.hit-ratio", this, cache -> {
+            double lookups = cache.hits.count() + cache.misses.count();
+            return lookups == 0 ? 0 : cache.hits.count() / lookups;
+        });
+    }
+
+    /**
+     * Returns the interned, parsed reference of the given image.
+     *
+     * @param image
+     * @return the shared image reference.
+     */
+    public ImageReference getImageReference(String image) {
+        ImageReference imageReference = imageReferences.get(image);
+        if (imageReference != null) {
+            hits.increment();
+            return imageReference;
+        }
+        misses.increment();
+        imageReference = ImageReference.parse(image);
+        if (imageReferences.size() < maxEntries) {
+            ImageReference internedImageReference = imageReferences.putIfAbsent(image, imageReference);
+            if (internedImageReference != null) {
+                return internedImageReference;
+            }
+        }
+        return imageReference;
+    }
+
+    /**
+     * Returns a new EDMM artifact of type "docker_image" for the given image,
+     * named by the interned image string of its reference.
+     *
+     * @param image
+     * @return a new artifact.
+     */
+    public Artifact getArtifact(String image) {
+        String name = image == null ? null : getImageReference(image).getImage();
+        return new Artifact(name, "docker_image", null, Confidence.CONFIRMED);
+    }
+
+}
@@ -0,0 +1,110 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.util.Objects;
+
+/**
+ * The immutable parsed form of a container image reference "[registry/]repository[:tag][@digest]".
+ * The registry is the first path segment if it contains a "." or a ":" or is "localhost", as for Docker.
+ * The parts are kept as written, i.e., missing parts are null and no default registry or tag is assumed.
+ */
+public final class ImageReference {
+
+    private final String image;
+
+    private final String registry;
+
+    private final String repository;
+
+    private final String tag;
+
+    private final String digest;
+
+
+    private ImageReference(String image, String registry, String repository, String tag, String digest) {
+        this.image = image;
+        this.registry = registry;
+        this.repository = repository;
+        this.tag = tag;
+        this.digest = digest;
+    }
+
+    /**
+     * Parses the given image reference into its registry, repository, tag and digest.
+     *
+     * @param image
+     * @return the parsed image reference.
+     */
+    public static ImageReference parse(String image) {
+        String rest = image;
+        String digest = null;
+        int digestStart = rest.indexOf('@');
+        if (digestStart >= 0) {
+            digest = rest.substring(digestStart + 1);
+            rest = rest.substring(0, digestStart);
+        }
+        String registry = null;
+        int registryEnd = rest.indexOf('/');
+        if (registryEnd >= 0) {
+            String firstSegment = rest.substring(0, registryEnd);
+            if (firstSegment.indexOf('.') >= 0 || firstSegment.indexOf(':') >= 0 || firstSegment.equals("localhost")) {
+                registry = firstSegment;
+                rest = rest.substring(registryEnd + 1);
+            }
+        }
+        String tag = null;
+        int tagStart = rest.lastIndexOf(':');
+        if (tagStart > rest.lastIndexOf('/')) {
+            tag = rest.substring(tagStart + 1);
+            rest = rest.substring(0, tagStart);
+        }
+        return new ImageReference(image, registry, rest, tag, digest);
+    }
+
+    public String getImage() {
+        return this.image;
+    }
+
+    public String getRegistry() {
+        return this.registry;
+    }
+
+    public String getRepository() {
+        return this.repository;
+    }
+
+    public String getTag() {
+        return this.tag;
+    }
+
+    public String getDigest() {
+        return this.digest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof ImageReference)) {
+            return false;
+        }
+        ImageReference imageReference = (ImageReference) o;
+        return Objects.equals(image, imageReference.image);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(image);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+            " image='" + getImage() + "'" +
+            ", registry='" + getRegistry() + "'" +
+            ", repository='" + getRepository() + "'" +
+            ", tag='" + getTag() + "'" +
+            ", digest='" + getDigest() + "'" +
+            "}";
+    }
+
+}
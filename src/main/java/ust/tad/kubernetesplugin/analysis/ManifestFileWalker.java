@@ -0,0 +1,120 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+@Service
+public class ManifestFileWalker {
+
+    private static final Logger LOG =
+      LoggerFactory.getLogger(ManifestFileWalker.class);
+
+    @Value("${analysis.directory.max-depth}")
+    private int maxDepth;
+
+    @Value("${analysis.directory.include}")
+    private String[] includePatterns;
+
+    @Value("${analysis.directory.exclude}")
+    private String[] excludePatterns;
+
+    /**
+     * Walks the directory tree below the given directory up to the configured depth and collects all files
+     * with a supported file extension.
+     * The include and exclude glob patterns are matched against the path relative to the given directory,
+     * excluded directories are not entered at all.
+     * Files and directories below the given directory that cannot be read are logged and skipped.
+     *
+     * @param directory
+     * @param supportedFileExtensions
+     * @return the URLs of the found files, sorted by their relative path.
+     * @throws IOException
+     */
+    public List<URL> findFiles(Path directory, Set<String> supportedFileExtensions) throws IOException {
+        List<PathMatcher> includeMatchers = createMatchers(includePatterns);
+        List<PathMatcher> excludeMatchers = createMatchers(excludePatterns);
+        List<Path> files = new ArrayList<>();
+        Files.walkFileTree(directory, EnumSet.noneOf(FileVisitOption.class), maxDepth, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(directory) && matchesAny(excludeMatchers, directory.relativize(dir))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path relativePath = directory.relativize(file);
+                String fileExtension = StringUtils.getFilenameExtension(file.getFileName().toString());
+                if (attrs.isRegularFile()
+                    && fileExtension != null && supportedFileExtensions.contains(fileExtension)
+                    && (includeMatchers.isEmpty() || matchesAny(includeMatchers, relativePath))
+                    && !matchesAny(excludeMatchers, relativePath)) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                if (file.equals(directory)) {
+                    throw exc;
+                }
+                LOG.warn("Skipping unreadable path " + file + ": " + exc);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    if (dir.equals(directory)) {
+                        throw exc;
+                    }
+                    LOG.warn("Skipping the rest of unreadable directory " + dir + ": " + exc);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(files);
+        List<URL> urls = new ArrayList<>();
+        for (Path file : files) {
+            urls.add(file.toUri().toURL());
+        }
+        return urls;
+    }
+
+    private List<PathMatcher> createMatchers(String[] patterns) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (!pattern.isBlank()) {
+                matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern.trim()));
+            }
+        }
+        return matchers;
+    }
+
+    private boolean matchesAny(List<PathMatcher> matchers, Path relativePath) {
+        return matchers.stream().anyMatch(matcher -> matcher.matches(relativePath));
+    }
+
+}
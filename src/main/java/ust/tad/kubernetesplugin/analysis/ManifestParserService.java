@@ -0,0 +1,360 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import ust.tad.kubernetesplugin.analysis.parser.ArchiveEntryReader;
+import ust.tad.kubernetesplugin.analysis.parser.KubernetesManifestHandler;
+import ust.tad.kubernetesplugin.analysis.parser.LineOffsetIndex;
+import ust.tad.kubernetesplugin.analysis.parser.MappedFileLineReader;
+import ust.tad.kubernetesplugin.analysis.parser.ParseResult;
+import ust.tad.kubernetesplugin.analysis.parser.YamlEventReader;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+
+@Service
+public class ManifestParserService {
+
+    @Autowired
+    private ForkJoinPool parserPool;
+
+    @Autowired
+    private ParseResultCache parseResultCache;
+
+    @Autowired
+    private ParseResultDiskStore parseResultDiskStore;
+
+    @Value("${analysis.parser.memory-mapping.enabled}")
+    private boolean memoryMappingEnabled;
+
+    @Value("${analysis.parser.parallel.enabled}")
+    private boolean parallelParsingEnabled;
+
+    @Value("${analysis.parser.line-index-cache.size}")
+    private int lineIndexCacheSize;
+
+    private final Map<Path, LineOffsetIndex> lineOffsetIndexes = Collections.synchronizedMap(
+        new LinkedHashMap<Path, LineOffsetIndex>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, LineOffsetIndex> eldest) {
+                return size() > lineIndexCacheSize;
+            }
+        });
+
+    /**
+     * Parses a Kubernetes manifest file in a single pass.
+     * If memory mapping is enabled, local files are mapped and only the kept values are decoded.
+     * If the parse cache or the disk store is enabled, the file is only parsed if no result is cached for its content.
+     * Local files are then always mapped, so they are read once and never copied to the heap as a whole:
+     * the mapping is hashed to look up the result, and on a miss it is parsed and hashed again in the same pass,
+     * so the result is stored under the hash of the content that was actually parsed, even if the file changed.
+     * Does not modify any shared state apart from the thread-safe cache, so several files can be parsed at the same time.
+     *
+     * @param url
+     * @return the deployments, services and annotated lines found in the file.
+     * @throws IOException
+     * @throws InvalidAnnotationException
+     */
+    public ParseResult parseFile(URL url) throws IOException, InvalidAnnotationException {
+        if (parseResultCache.isEnabled() || parseResultDiskStore.isEnabled()) {
+            if ("file".equals(url.getProtocol())) {
+                return parseMappedContent(MappedFileLineReader.map(toPath(url)), true, 1, "");
+            }
+            byte[] content;
+            try (InputStream inputStream = url.openStream()) {
+                content = inputStream.readAllBytes();
+            }
+            return parseContent(content);
+        }
+        KubernetesManifestHandler handler = new KubernetesManifestHandler();
+        YamlEventReader yamlEventReader = new YamlEventReader(handler);
+        if (memoryMappingEnabled && "file".equals(url.getProtocol())) {
+            MappedFileLineReader.readLines(toPath(url), yamlEventReader::readLine);
+        } else {
+            try (InputStream inputStream = url.openStream()) {
+                readLines(inputStream, yamlEventReader);
+            }
+        }
+        yamlEventReader.finish();
+        return handler.getResult();
+    }
+
+    /**
+     * Parses the entries of a .zip, .tar.gz or .tgz archive with a supported file extension
+     * while streaming through the archive, without extracting it.
+     *
+     * @param url
+     * @param supportedFileExtensions
+     * @return the parse results by entry name in the order of the entries in the archive.
+     * @throws IOException
+     * @throws InvalidAnnotationException
+     */
+    public Map<String, ParseResult> parseArchive(URL url, Set<String> supportedFileExtensions) throws IOException, InvalidAnnotationException {
+        Map<String, ParseResult> parseResults = new LinkedHashMap<>();
+        try (InputStream inputStream = url.openStream()) {
+            ArchiveEntryReader.readEntries(inputStream, url.getPath(), (entryName, content) -> {
+                String fileExtension = StringUtils.getFilenameExtension(entryName);
+                if (fileExtension != null && supportedFileExtensions.contains(fileExtension)
+                    && (parseResultCache.isEnabled() || parseResultDiskStore.isEnabled())) {
+                    parseResults.put(entryName, parseContent(content.readAllBytes()));
+                } else if (fileExtension != null && supportedFileExtensions.contains(fileExtension)) {
+                    KubernetesManifestHandler handler = new KubernetesManifestHandler();
+                    YamlEventReader yamlEventReader = new YamlEventReader(handler);
+                    readLines(content, yamlEventReader);
+                    yamlEventReader.finish();
+                    parseResults.put(entryName, handler.getResult());
+                }
+            });
+        }
+        return parseResults;
+    }
+
+    /**
+     * Creates the jar-style URL of an archive entry, e.g., "jar:file:/manifests.zip!/app/deployment.yaml".
+     *
+     * @param archiveUrl
+     * @param entryName
+     * @return the URL of the entry.
+     * @throws MalformedURLException
+     */
+    public static URL getEntryURL(URL archiveUrl, String entryName) throws MalformedURLException {
+        return new URL("jar:" + archiveUrl + "!/" + entryName);
+    }
+
+    /**
+     * Parses only the lines from startLineNumber to endLineNumber of a local file.
+     * The byte offsets of the lines are taken from a line-offset index, which is built once per file and reused
+     * as long as the size and modification time of the file do not change.
+     * A start line number below 1 means the beginning, an end line number below 1 the end of the file.
+     * If the parse cache or the disk store is enabled, the result is cached under the hash of the bytes of the lines
+     * together with the first line number, as the line numbers of the result depend on it.
+     * Other locations are parsed completely.
+     *
+     * @param url
+     * @param startLineNumber
+     * @param endLineNumber
+     * @return the deployments, services and annotated lines found in the given lines.
+     * @throws IOException
+     * @throws InvalidAnnotationException
+     */
+    public ParseResult parseFile(URL url, int startLineNumber, int endLineNumber) throws IOException, InvalidAnnotationException {
+        if (!"file".equals(url.getProtocol()) || (startLineNumber <= 1 && endLineNumber <= 0)) {
+            return parseFile(url);
+        }
+        Path path = toPath(url);
+        LineOffsetIndex lineOffsetIndex = getLineOffsetIndex(path);
+        int firstLineNumber = Math.max(1, startLineNumber);
+        int lastLineNumber = endLineNumber <= 0 ? lineOffsetIndex.getNumberOfLines() : Math.min(endLineNumber, lineOffsetIndex.getNumberOfLines());
+
+        long startOffset = lineOffsetIndex.getOffset(firstLineNumber);
+        long endOffset = lineOffsetIndex.getOffset(lastLineNumber + 1);
+        if (firstLineNumber <= lastLineNumber && (parseResultCache.isEnabled() || parseResultDiskStore.isEnabled())) {
+            return parseMappedContent(MappedFileLineReader.map(path, startOffset, endOffset),
+                startOffset == 0, firstLineNumber, "-" + firstLineNumber);
+        }
+        KubernetesManifestHandler handler = new KubernetesManifestHandler();
+        YamlEventReader yamlEventReader = new YamlEventReader(handler, firstLineNumber);
+        if (firstLineNumber <= lastLineNumber) {
+            MappedFileLineReader.readLines(path, startOffset, endOffset, yamlEventReader::readLine);
+        }
+        yamlEventReader.finish();
+        return handler.getResult();
+    }
+
+    /**
+     * Parses several files.
+     * If parallel parsing is enabled, each file is parsed by its own task on the bounded parser pool.
+     * The results are returned in the order of the given URLs in both cases.
+     *
+     * @param urls
+     * @return the parse results in the order of the URLs.
+     * @throws IOException
+     * @throws InvalidAnnotationException
+     */
+    public List<ParseResult> parseFiles(List<URL> urls) throws IOException, InvalidAnnotationException {
+        List<ParseResult> parseResults = new ArrayList<>();
+        if (!parallelParsingEnabled || urls.size() < 2) {
+            for (URL url : urls) {
+                parseResults.add(parseFile(url));
+            }
+            return parseResults;
+        }
+        List<Callable<ParseResult>> tasks = new ArrayList<>();
+        for (URL url : urls) {
+            tasks.add(() -> parseFile(url));
+        }
+        for (Future<ParseResult> future : parserPool.invokeAll(tasks)) {
+            parseResults.add(getParseResult(future));
+        }
+        return parseResults;
+    }
+
+    private ParseResult getParseResult(Future<ParseResult> future) throws IOException, InvalidAnnotationException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing files", e);
+        } catch (ExecutionException e) {
+            Throwable cause = getTaskException(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof InvalidAnnotationException) {
+                throw (InvalidAnnotationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Returns the exception thrown by a task.
+     * The fork-join pool wraps checked exceptions of tasks in plain runtime exceptions, these are unwrapped.
+     */
+    private Throwable getTaskException(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause.getClass() == RuntimeException.class && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private ParseResult parseContent(byte[] content) throws IOException, InvalidAnnotationException {
+        String key = parseResultCache.createKey(content);
+        return parseContent(key, 1, yamlEventReader -> {
+            readLines(new ByteArrayInputStream(content), yamlEventReader);
+            return key;
+        });
+    }
+
+    /**
+     * Parses mapped file content if no result is cached for it.
+     * On a miss the content is hashed while it is parsed, and the result is stored under that hash.
+     *
+     * @param content
+     * @param startOfFile whether the content starts at the beginning of the file.
+     * @param firstLineNumber the line number of the first line of the content.
+     * @param keySuffix appended to the hash of the content to create the key.
+     * @return the deployments, services and annotated lines found in the content.
+     * @throws IOException
+     * @throws InvalidAnnotationException
+     */
+    private ParseResult parseMappedContent(ByteBuffer content, boolean startOfFile, int firstLineNumber, String keySuffix)
+        throws IOException, InvalidAnnotationException {
+        return parseContent(parseResultCache.createKey(content) + keySuffix, firstLineNumber, yamlEventReader -> {
+            MessageDigest messageDigest = parseResultCache.createMessageDigest();
+            MappedFileLineReader.readLines(content, startOfFile, yamlEventReader::readLine, messageDigest);
+            return parseResultCache.createKey(messageDigest) + keySuffix;
+        });
+    }
+
+    /**
+     * Returns the parse result for the file content from the in-memory cache or the disk store, whichever is enabled,
+     * or parses the content and adds the result to them.
+     *
+     * The parsed result is stored under the key returned by the content reader, i.e., of the content that was parsed.
+     *
+     * @param key the key of the content as created by the parse result cache.
+     * @param firstLineNumber the line number of the first line of the content.
+     * @param contentReader passes the lines of the content to the YAML event reader, only called if nothing is cached.
+     * @return the deployments, services and annotated lines found in the content.
+     * @throws IOException
+     * @throws InvalidAnnotationException
+     */
+    private ParseResult parseContent(String key, int firstLineNumber, ContentReader contentReader) throws IOException, InvalidAnnotationException {
+        ParseResult parseResult = parseResultCache.isEnabled() ? parseResultCache.get(key) : null;
+        if (parseResult == null && parseResultDiskStore.isEnabled()) {
+            parseResult = parseResultDiskStore.get(key);
+            if (parseResult != null && parseResultCache.isEnabled()) {
+                parseResultCache.put(key, parseResult);
+            }
+        }
+        if (parseResult == null) {
+            KubernetesManifestHandler handler = new KubernetesManifestHandler();
+            YamlEventReader yamlEventReader = new YamlEventReader(handler, firstLineNumber);
+            String parsedKey = contentReader.readLines(yamlEventReader);
+            yamlEventReader.finish();
+            parseResult = handler.getResult();
+            if (parseResultCache.isEnabled()) {
+                parseResultCache.put(parsedKey, parseResult);
+            }
+            if (parseResultDiskStore.isEnabled()) {
+                parseResultDiskStore.put(parsedKey, parseResult);
+            }
+        }
+        return parseResult;
+    }
+
+    /**
+     * Reads the stream line by line without closing it.
+     */
+    private void readLines(InputStream inputStream, YamlEventReader yamlEventReader) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            yamlEventReader.readLine(line);
+        }
+    }
+
+    /**
+     * Returns the cached line-offset index of the file or builds a new one if the file has changed.
+     *
+     * @param path
+     * @return the line-offset index.
+     * @throws IOException
+     */
+    private LineOffsetIndex getLineOffsetIndex(Path path) throws IOException {
+        long fileSize = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        LineOffsetIndex lineOffsetIndex = lineOffsetIndexes.get(path);
+        if (lineOffsetIndex == null || !lineOffsetIndex.isUpToDate(fileSize, lastModified)) {
+            lineOffsetIndex = LineOffsetIndex.build(path);
+            lineOffsetIndexes.put(path, lineOffsetIndex);
+        }
+        return lineOffsetIndex;
+    }
+
+    private Path toPath(URL url) throws IOException {
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid file location " + url, e);
+        }
+    }
+
+    /**
+     * Passes the lines of a file content to a YAML event reader and returns the key of the content that was read.
+     */
+    private interface ContentReader {
+
+        String readLines(YamlEventReader yamlEventReader) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,214 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ust.tad.kubernetesplugin.analysis.parser.ParseResult;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.ContainerPort;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Label;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.Selector;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.ServicePort;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+import ust.tad.kubernetesplugin.models.tsdm.LineRange;
+
+/**
+ * Bounded LRU cache for the results of parsing manifest files, addressed by the SHA-256 hash of the file content.
+ * Unchanged files are thereby not parsed again, regardless of their location or the task they belong to.
+ * The numbers of hits, misses and evictions are published as metrics.
+ * Results are deep-copied when they are added and returned, as the tasks using them modify their models.
+ */
+@Component
+public class ParseResultCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${analysis.parser.cache.enabled}")
+    private boolean enabled;
+
+    @Value("${analysis.parser.cache.max-entries}")
+    private int maxEntries;
+
+    private Map<String, ParseResult> parseResults;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    private Counter evictions;
+
+    @PostConstruct
+    private void init() {
+        this.hits = meterRegistry.counter("analysis.parser.cache", "result", "hit");
+        this.misses = meterRegistry.counter("analysis.parser.cache", "result", "miss");
+        this.evictions = meterRegistry.counter("analysis.parser.cache.evictions");
+        this.parseResults = new LinkedHashMap<String, ParseResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParseResult> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Creates the key under which the parse result of the given file content is cached.
+     *
+     * @param content
+     * @return the hex-encoded SHA-256 hash of the content.
+     */
+    public String createKey(byte[] content) {
+        return createKey(ByteBuffer.wrap(content));
+    }
+
+    /**
+     * Creates the key under which the parse result of the given file content is cached,
+     * e.g., of a mapped file, without copying the content to the heap.
+     * The position of the buffer is not changed.
+     *
+     * @param content
+     * @return the hex-encoded SHA-256 hash of the content.
+     */
+    public String createKey(ByteBuffer content) {
+        MessageDigest messageDigest = createMessageDigest();
+        messageDigest.update(content.duplicate());
+        return createKey(messageDigest);
+    }
+
+    /**
+     * Creates a digest for a file content that is hashed while it is parsed.
+     *
+     * @return a new SHA-256 digest.
+     */
+    public MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates the key under which the parse result of the file content is cached from the digest of the content.
+     *
+     * @param messageDigest a digest created by {@link #createMessageDigest()} that was updated with the content.
+     * @return the hex-encoded SHA-256 hash of the content.
+     */
+    public String createKey(MessageDigest messageDigest) {
+        return String.format("%064x", new BigInteger(1, messageDigest.digest()));
+    }
+
+    /**
+     * Returns the cached parse result for the given key and counts the hit or miss.
+     * The returned result is a deep copy, so it can be modified without affecting the cache or other tasks.
+     *
+     * @param key
+     * @return the cached parse result or null if there is none.
+     */
+    public ParseResult get(String key) {
+        ParseResult parseResult;
+        synchronized (parseResults) {
+            parseResult = parseResults.get(key);
+        }
+        if (parseResult == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(parseResult);
+    }
+
+    /**
+     * Adds a parse result to the cache, evicting the least recently used one if the cache is full.
+     *
+     * @param key
+     * @param parseResult
+     */
+    public void put(String key, ParseResult parseResult) {
+        ParseResult copy = copy(parseResult);
+        synchronized (parseResults) {
+            parseResults.put(key, copy);
+        }
+    }
+
+    private ParseResult copy(ParseResult parseResult) {
+        List<LineRange> lineRanges = new ArrayList<>();
+        for (LineRange lineRange : parseResult.getLineRanges()) {
+            try {
+                lineRanges.add(new LineRange(lineRange.getStartLineNumber(), lineRange.getEndLineNumber(),
+                    lineRange.getComprehensibility(), lineRange.isAnalyzed()));
+            } catch (InvalidAnnotationException e) {
+                throw new IllegalStateException("Cached line range has invalid annotations", e);
+            }
+        }
+        Set<KubernetesDeployment> deployments = new HashSet<>();
+        for (KubernetesDeployment deployment : parseResult.getDeployments()) {
+            deployments.add(copy(deployment));
+        }
+        Set<KubernetesService> services = new HashSet<>();
+        for (KubernetesService service : parseResult.getServices()) {
+            services.add(copy(service));
+        }
+        return new ParseResult(lineRanges, deployments, services);
+    }
+
+    private KubernetesDeployment copy(KubernetesDeployment deployment) {
+        Set<Label> labels = new HashSet<>();
+        for (Label label : deployment.getLabels()) {
+            labels.add(new Label(label.getKey(), label.getValue()));
+        }
+        Set<Container> containers = new HashSet<>();
+        for (Container container : deployment.getContainer()) {
+            Set<ContainerPort> containerPorts = new HashSet<>();
+            for (ContainerPort containerPort : container.getContainerPorts()) {
+                containerPorts.add(new ContainerPort(containerPort.getName(), containerPort.getPort()));
+            }
+            Set<EnvironmentVariable> environmentVariables = new HashSet<>();
+            for (EnvironmentVariable environmentVariable : container.getEnvironmentVariables()) {
+                environmentVariables.add(new EnvironmentVariable(environmentVariable.getKey(), environmentVariable.getValue()));
+            }
+            containers.add(new Container(container.getName(), container.getImage(), containerPorts, environmentVariables));
+        }
+        return new KubernetesDeployment(deployment.getName(), deployment.getReplicas(), labels, containers);
+    }
+
+    private KubernetesService copy(KubernetesService service) {
+        Set<ServicePort> servicePorts = new HashSet<>();
+        for (ServicePort servicePort : service.getServicePorts()) {
+            servicePorts.add(new ServicePort(servicePort.getName(), servicePort.getPort(), servicePort.getTargetPort()));
+        }
+        Set<Selector> selectors = new HashSet<>();
+        for (Selector selector : service.getSelectors()) {
+            selectors.add(new Selector(selector.getKey(), selector.getValue()));
+        }
+        return new KubernetesService(service.getName(), servicePorts, selectors);
+    }
+
+}
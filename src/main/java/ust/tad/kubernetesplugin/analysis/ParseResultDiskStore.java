@@ -0,0 +1,228 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ust.tad.kubernetesplugin.analysis.parser.ParseResult;
+import ust.tad.kubernetesplugin.analysis.parser.ParseResultCodec;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+
+/**
+ * Stores parse results in a local directory, addressed by the same content hash as the {@link ParseResultCache},
+ * so that they survive restarts of the plugin.
+ * The total size of the stored files is capped, the least recently used files are deleted first.
+ * The modification time of a file serves as its last access time, so the order is restored after a restart.
+ */
+@Component
+public class ParseResultDiskStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParseResultDiskStore.class);
+
+    private static final String FILE_EXTENSION = ".bin";
+
+    @Value("${analysis.parser.disk-store.enabled}")
+    private boolean enabled;
+
+    @Value("${analysis.parser.disk-store.directory}")
+    private String directoryName;
+
+    @Value("${analysis.parser.disk-store.max-size-bytes}")
+    private long maxSizeBytes;
+
+    private Path directory;
+
+    private final Map<String, Long> fileSizes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalSize;
+
+    /**
+     * Creates the directory if necessary, deletes files left over from interrupted writes
+     * and restores the sizes and access order of the stored files.
+     *
+     * @throws IOException
+     */
+    @PostConstruct
+    private void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(directoryName);
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path temporaryFile : stream) {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+        List<Path> files = new ArrayList<>();
+        Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : stream) {
+                files.add(file);
+                attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+            }
+        }
+        files.sort(Comparator.comparing(file -> attributes.get(file).lastModifiedTime()));
+        synchronized (fileSizes) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                long size = attributes.get(file).size();
+                fileSizes.put(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()), size);
+                totalSize += size;
+            }
+            evict();
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Reads the stored parse result for the given key and marks it as recently used.
+     * Files that cannot be decoded are deleted, unless they were replaced in the meantime.
+     *
+     * @param key
+     * @return the stored parse result or null if there is none.
+     */
+    public ParseResult get(String key) {
+        synchronized (fileSizes) {
+            if (fileSizes.get(key) == null) {
+                return null;
+            }
+        }
+        Path file = getFile(key);
+        Object fileIdentity = null;
+        try {
+            fileIdentity = getFileIdentity(file);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                ParseResult parseResult = ParseResultCodec.read(in);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                return parseResult;
+            }
+        } catch (NoSuchFileException e) {
+            removeIfUnchanged(key, fileIdentity);
+            return null;
+        } catch (IOException | InvalidAnnotationException e) {
+            LOG.warn("Discarding unreadable parse result " + file + ": " + e.getMessage());
+            removeIfUnchanged(key, fileIdentity);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the parse result under the given key and deletes the least recently used files if the size cap is exceeded.
+     * The file is written to a temporary file first and then moved, so readers never see partially written files.
+     *
+     * @param key
+     * @param parseResult
+     */
+    public void put(String key, ParseResult parseResult) {
+        Path file = getFile(key);
+        try {
+            Path temporaryFile = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                ParseResultCodec.write(parseResult, out);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporaryFile);
+                throw e;
+            }
+            long size = Files.size(temporaryFile);
+            synchronized (fileSizes) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Long previousSize = fileSizes.put(key, size);
+                totalSize += size - (previousSize != null ? previousSize : 0);
+                evict();
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not store parse result " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the entry for the given key after a failed read, but only if its file is still the one that failed,
+     * i.e., it was not replaced by a concurrent put. A replaced file is left to the eviction.
+     * The file is moved into place while holding the lock, so it cannot be replaced between the check and the deletion.
+     *
+     * @param key
+     * @param fileIdentity the identity of the file that failed, or null if it did not exist.
+     */
+    private void removeIfUnchanged(String key, Object fileIdentity) {
+        Path file = getFile(key);
+        synchronized (fileSizes) {
+            try {
+                Object currentFileIdentity = getFileIdentity(file);
+                if (!currentFileIdentity.equals(fileIdentity)) {
+                    return;
+                }
+                Files.deleteIfExists(file);
+            } catch (NoSuchFileException e) {
+                // the file is gone, so only the entry is left to remove
+            } catch (IOException e) {
+                LOG.warn("Could not delete parse result " + file + ": " + e.getMessage());
+            }
+            Long size = fileSizes.remove(key);
+            if (size != null) {
+                totalSize -= size;
+            }
+        }
+    }
+
+    /**
+     * Identifies a stored file, so that a file replaced by a put can be told apart from the one read before.
+     * Uses the file key of the file system, e.g., the inode, or the modification time if the file system has none.
+     *
+     * @param file
+     * @return the identity of the file.
+     * @throws IOException
+     */
+    private static Object getFileIdentity(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.lastModifiedTime();
+    }
+
+    /**
+     * Deletes the least recently used files until the size cap is met. Has to be called while holding the lock.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = fileSizes.entrySet().iterator();
+        while (totalSize > maxSizeBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalSize -= eldest.getValue();
+            try {
+                Files.deleteIfExists(getFile(eldest.getKey()));
+            } catch (IOException e) {
+                LOG.warn("Could not delete parse result " + getFile(eldest.getKey()) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Path getFile(String key) {
+        return directory.resolve(key + FILE_EXTENSION);
+    }
+
+}
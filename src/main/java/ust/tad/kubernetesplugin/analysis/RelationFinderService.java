@@ -4,18 +4,19 @@ import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
-import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import ust.tad.kubernetesplugin.models.tadm.Component;
 import ust.tad.kubernetesplugin.models.tadm.ComponentType;
 import ust.tad.kubernetesplugin.models.tadm.Confidence;
@@ -29,30 +30,61 @@ import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
 public class RelationFinderService {
 
     private String[] PROPERTY_KEYWORDS = {"connect","host","server","url","uri"};
-    
-    private RelationType connectsToRelationType = new RelationType();
-    private RelationType hostedOnRelationType = new RelationType();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter prefilterRejections;
+
+    private Counter prefilterMatches;
+
+    private Counter prefilterFalsePositives;
+
+    /**
+     * Registers the metrics of the name prefilter.
+     * A property value that passes the prefilter but contains no name is counted as a false positive,
+     * the false-positive rate relates them to all values that contain no name.
+     */
+    @PostConstruct
+    private void init() {
+        this.prefilterRejections = meterRegistry.counter("analysis.relations.prefilter", "result", "rejected");
+        this.prefilterMatches = meterRegistry.counter("analysis.relations.prefilter", "result", "match");
+        this.prefilterFalsePositives = meterRegistry.counter("analysis.relations.prefilter", "result", "false_positive");
+        meterRegistry.gauge("analysis.relations.prefilter.false-positive-rate", this, service -> {
+            double falsePositives = service.prefilterFalsePositives.count();
+            double negatives = falsePositives + service.prefilterRejections.count();
+            return negatives == 0 ? 0 : falsePositives / negatives;
+        });
+    }
 
     /**
      * Creates EDMM relations for the newly created components.
+     * All state of the search is kept in the given transformation context.
      * 
-     * @param tadm
+     * @param context the context with the tadm and the matching services and deployments of the transformation.
      * @param newComponents
-     * @param matchingServicesAndDeployments
      * @return
      * @throws InvalidRelationException
      * @throws URISyntaxException
      */
     public TechnologyAgnosticDeploymentModel findAndCreateRelations(
-        TechnologyAgnosticDeploymentModel tadm, 
-        List<Component> newComponents, 
-        Map<KubernetesService, KubernetesDeployment> matchingServicesAndDeployments) 
+        TransformationContext context, 
+        List<Component> newComponents) 
         throws InvalidRelationException, URISyntaxException {
-            setRelationTypes(tadm.getRelationTypes());
+            TechnologyAgnosticDeploymentModel tadm = context.getTadm();
+            setRelationTypes(context);
             Set<Relation> newRelations = new HashSet<>();
+            List<String> componentNames = tadm.getComponents().stream()
+                .map(component -> component.getName())
+                .collect(Collectors.toList());
+            List<String> names = new ArrayList<>(componentNames);
+            context.getMatchingServicesAndDeployments().keySet().forEach(service -> names.add(service.getName()));
+            ComponentNamePrefilter componentNamePrefilter = new ComponentNamePrefilter(names);
+            ConnectionHostIndex connectionHostIndex = new ConnectionHostIndex(names);
+            ComponentNameMatcher componentNameMatcher = new ComponentNameMatcher(componentNames);
             for (Component newComponent : newComponents) {
-                newRelations.addAll(findRelationsInProperties(tadm, newComponent, matchingServicesAndDeployments));
-                Optional<Relation> relationToContainerRuntime = findRelationToContainerRuntime(tadm, newComponent);
+                newRelations.addAll(findRelationsInProperties(context, newComponent, componentNamePrefilter, connectionHostIndex, componentNameMatcher));
+                Optional<Relation> relationToContainerRuntime = findRelationToContainerRuntime(context, newComponent);
                 if (relationToContainerRuntime.isPresent()) {
                     newRelations.add(relationToContainerRuntime.get());
                 }
@@ -66,19 +98,20 @@ public class RelationFinderService {
      * Finds and creates an EDMM relation of type "hosted on" between a newly created component and an 
      * already existing component of type "container runtime".
      * 
-     * @param tadm
+     * @param context
      * @param newComponent
      * @return
      * @throws InvalidRelationException
      */
-    private Optional<Relation> findRelationToContainerRuntime(TechnologyAgnosticDeploymentModel tadm, Component newComponent) throws InvalidRelationException {
-        Optional<ComponentType> containerRuntimeComponentTypeOpt = tadm.getComponentTypes().stream().filter(componentType -> componentType.getName().equals("container_runtime")).findFirst();
+    private Optional<Relation> findRelationToContainerRuntime(TransformationContext context, Component newComponent) throws InvalidRelationException {
+        TechnologyAgnosticDeploymentModel tadm = context.getTadm();
+        Optional<ComponentType> containerRuntimeComponentTypeOpt = tadm.getComponentTypeByName("container_runtime");
         if (containerRuntimeComponentTypeOpt.isPresent()) {
-            Optional<Component> containerRuntimeComponentOpt = tadm.getComponents().stream().filter(component -> component.getType().equals(containerRuntimeComponentTypeOpt.get())).findFirst();
+            Optional<Component> containerRuntimeComponentOpt = tadm.getComponentByType(containerRuntimeComponentTypeOpt.get());
             if(containerRuntimeComponentOpt.isPresent()) {
                 Relation relation = new Relation();
-                relation.setType(this.hostedOnRelationType);
-                relation.setName(newComponent.getName()+"_"+this.hostedOnRelationType.getName()+"_"+containerRuntimeComponentOpt.get().getName());
+                relation.setType(context.getHostedOnRelationType());
+                relation.setName(newComponent.getName()+"_"+context.getHostedOnRelationType().getName()+"_"+containerRuntimeComponentOpt.get().getName());
                 relation.setSource(newComponent);
                 relation.setTarget(containerRuntimeComponentOpt.get());
                 relation.setConfidence(Confidence.SUSPECTED);
@@ -91,30 +124,47 @@ public class RelationFinderService {
     /**
      * Iterates over the properties of a component to find relations to other components.
      * It uses the PROPERTY_KEYWORDS to find properties that may contain references to other components.
-     * The values of these properties are inspected, whether they contain the name of another component.
-     * If so, a new relation between the source component and the matched component is created.
+     * Values of these properties that cannot contain any name according to the prefilter are skipped right away.
+     * The host is extracted from the values of these properties and looked up exactly in the names of the components
+     * and matched services, an unknown host refers to no component.
+     * Only values without a recognizable host are searched for contained component names.
+     * If a name is found, a new relation between the source component and the matched component is created.
      * 
-     * @param tadm
+     * @param context
      * @param sourceComponent
-     * @param matchingServicesAndDeployments
+     * @param componentNamePrefilter the prefilter for the names of all components of the tadm and all matched services.
+     * @param connectionHostIndex the index of the names of all components of the tadm and all matched services.
+     * @param componentNameMatcher the matcher for the names of all components of the tadm.
      * @return the List of new relations that were created.
      * @throws InvalidRelationException
      * @throws URISyntaxException
      */
     private List<Relation> findRelationsInProperties(
-        TechnologyAgnosticDeploymentModel tadm, 
+        TransformationContext context, 
         Component sourceComponent, 
-        Map<KubernetesService, KubernetesDeployment> matchingServicesAndDeployments) 
+        ComponentNamePrefilter componentNamePrefilter,
+        ConnectionHostIndex connectionHostIndex,
+        ComponentNameMatcher componentNameMatcher) 
         throws InvalidRelationException, URISyntaxException {
             List<Relation> newRelations = new ArrayList<>();
-            List<String> targetComponentNames = tadm.getComponents().stream()
-            .map(component -> component.getName())
-            .collect(Collectors.toList());
             for (Property property : sourceComponent.getProperties()) {
                 if (Arrays.stream(PROPERTY_KEYWORDS).anyMatch(property.getKey().toString().toLowerCase()::contains)) {
-                    Optional<String> matchedComponentName = matchPropertyWithComponentNames(property, targetComponentNames);            
+                    String value = property.getValue().toString();
+                    if (!componentNamePrefilter.mightContainName(value)) {
+                        prefilterRejections.increment();
+                        continue;
+                    }
+                    Optional<String> host = ConnectionHostIndex.parseHost(value);
+                    Optional<String> matchedComponentName = host.isPresent()
+                        ? connectionHostIndex.findName(host.get())
+                        : matchPropertyWithComponentNames(property, componentNameMatcher);
+                    if (matchedComponentName.isPresent()) {
+                        prefilterMatches.increment();
+                    } else {
+                        prefilterFalsePositives.increment();
+                    }
                     if (matchedComponentName.isPresent() && !matchedComponentName.get().equals(sourceComponent.getName())) {
-                        Optional<Relation> relationOpt = createRelationToComponent(matchedComponentName.get(), sourceComponent, tadm.getComponents(), matchingServicesAndDeployments);
+                        Optional<Relation> relationOpt = createRelationToComponent(matchedComponentName.get(), sourceComponent, context);
                         if (relationOpt.isPresent()) {
                             newRelations.add(relationOpt.get());
                         }
@@ -129,22 +179,14 @@ public class RelationFinderService {
      * If a match is found the name of the matched component is returned.
      * If there are several matches, the longest match is chosen, as there may be component names embedded in the 
      * names of other components (e.g., "my-service" and "my-service-db").
+     * The property value is scanned once with the automaton over all component names.
      * 
      * @param property
-     * @param componentNames
+     * @param componentNameMatcher
      * @return an Optional with the name of the matched component.
      */
-    private Optional<String> matchPropertyWithComponentNames(Property property, List<String> componentNames) {
-        List<String> matchedComponentNames = componentNames.stream()
-        .filter(targetComponentName -> property.getValue().toString().contains(targetComponentName))
-        .collect(Collectors.toList());  
-        if (matchedComponentNames.size() == 1) {
-            return Optional.of(matchedComponentNames.get(0));
-        } else if (matchedComponentNames.size() > 1) {
-            return Optional.of(matchedComponentNames.stream().max(Comparator.comparingInt(String::length)).get());
-        } else {
-            return Optional.empty();
-        }
+    private Optional<String> matchPropertyWithComponentNames(Property property, ComponentNameMatcher componentNameMatcher) {
+        return componentNameMatcher.findLongestMatch(property.getValue().toString());
     }
 
     /**
@@ -154,8 +196,7 @@ public class RelationFinderService {
      * 
      * @param connectionURI
      * @param sourceComponent
-     * @param components
-     * @param matchingServicesAndDeployments
+     * @param context
      * @return
      * @throws MalformedURLException
      * @throws InvalidRelationException
@@ -164,76 +205,56 @@ public class RelationFinderService {
     private Optional<Relation> createRelationToComponent(
         String targetComponentName, 
         Component sourceComponent, 
-        List<Component> components,
-        Map<KubernetesService, KubernetesDeployment> matchingServicesAndDeployments) 
+        TransformationContext context) 
         throws InvalidRelationException {
             Relation relation = new Relation();
-            relation.setType(this.connectsToRelationType);
+            relation.setType(context.getConnectsToRelationType());
             relation.setSource(sourceComponent);
             relation.setConfidence(Confidence.CONFIRMED);
 
-            Optional<Component> targetComponentOpt = getComponentByName(targetComponentName, components);
+            Optional<Component> targetComponentOpt = context.getTadm().getComponentByName(targetComponentName);
             if (targetComponentOpt.isPresent()) {
                 relation.setTarget(targetComponentOpt.get());
-                relation.setName(sourceComponent.getName()+"_"+this.connectsToRelationType.getName()+"_"+targetComponentOpt.get().getName());
+                relation.setName(sourceComponent.getName()+"_"+context.getConnectsToRelationType().getName()+"_"+targetComponentOpt.get().getName());
                 return Optional.of(relation);
             }
-            targetComponentOpt = getComponentByMatchingService(targetComponentName, matchingServicesAndDeployments, components);
+            targetComponentOpt = getComponentByMatchingService(targetComponentName, context);
             if (targetComponentOpt.isPresent()) {
                 relation.setTarget(targetComponentOpt.get());
-                relation.setName(sourceComponent.getName()+"_"+this.connectsToRelationType.getName()+"_"+targetComponentOpt.get().getName());
+                relation.setName(sourceComponent.getName()+"_"+context.getConnectsToRelationType().getName()+"_"+targetComponentOpt.get().getName());
                 return Optional.of(relation);
             }
 
             return Optional.empty();
     }
 
-    /**
-     * Get a component by its name from a given List of components.
-     * 
-     * @param name
-     * @param components
-     * @return
-     */
-    private Optional<Component> getComponentByName(String name, List<Component> components) {
-        return components.stream().filter(component -> component.getName().equals(name)).findFirst();
-    }
-
     /**
      * For a given serviceName, finds the EDMM component that was created based on this service.
+     * Both the matching service and the component are looked up by their name.
      * 
      * @param serviceName
-     * @param matchingServicesAndDeployments
-     * @param components
+     * @param context
      * @return
      */
-    private Optional<Component> getComponentByMatchingService(String serviceName, Map<KubernetesService, KubernetesDeployment> matchingServicesAndDeployments, List<Component> components) {
-        Set<KubernetesService> services = matchingServicesAndDeployments.keySet();
-        Optional<KubernetesService> matchedService = services.stream().filter(s -> s.getName().equals(serviceName)).findFirst();
-        if (matchedService.isPresent()) {
-            String componentName = matchingServicesAndDeployments.get(matchedService.get()).getName();
-            Optional<Component> component = components.stream().filter(c -> c.getName().equals(componentName)).findFirst();
-            if(component.isPresent()) {
-                return component;
-            }
-        }
-        return Optional.empty();
+    private Optional<Component> getComponentByMatchingService(String serviceName, TransformationContext context) {
+        return context.getMatchingDeploymentByServiceName(serviceName)
+            .flatMap(deployment -> context.getTadm().getComponentByName(deployment.getName()));
     }
 
     /**
      * Gets the "connects to" and "hosted on" relation types from the technology-agnostic deployment model.
-     * Saves them in class-wide variables for reuse in newly created components.
+     * Saves them in the transformation context for reuse in newly created relations.
      * 
-     * @param relationTypes
+     * @param context
      */
-    private void setRelationTypes(List<RelationType> relationTypes) {
-        Optional<RelationType> connectsToRelationTypeOpt = relationTypes.stream().filter(relationType -> relationType.getName().equals("ConnectsTo")).findFirst();
+    private void setRelationTypes(TransformationContext context) {
+        Optional<RelationType> connectsToRelationTypeOpt = context.getTadm().getRelationTypeByName("ConnectsTo");
         if (connectsToRelationTypeOpt.isPresent()) {
-            this.connectsToRelationType = connectsToRelationTypeOpt.get();
+            context.setConnectsToRelationType(connectsToRelationTypeOpt.get());
         }
-        Optional<RelationType> hostedOnRelationTypeOpt = relationTypes.stream().filter(relationType -> relationType.getName().equals("HostedOn")).findFirst();
+        Optional<RelationType> hostedOnRelationTypeOpt = context.getTadm().getRelationTypeByName("HostedOn");
         if (hostedOnRelationTypeOpt.isPresent()) {
-            this.hostedOnRelationType = hostedOnRelationTypeOpt.get();
+            context.setHostedOnRelationType(hostedOnRelationTypeOpt.get());
         }
     }
     
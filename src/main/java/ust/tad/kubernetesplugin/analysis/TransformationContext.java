@@ -0,0 +1,116 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.models.tadm.RelationType;
+import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
+
+/**
+ * The state of a single transformation of the internal Kubernetes model into a technology-agnostic deployment model.
+ * A new context is created for each transformation, so the services themselves hold no state
+ * and several transformations can run at the same time.
+ */
+public class TransformationContext {
+
+    private TechnologyAgnosticDeploymentModel tadm;
+
+    private Map<KubernetesService, KubernetesDeployment> matchingServicesAndDeployments = new HashMap<>();
+
+    /*
+     * Index of the matching services by their name, rebuilt when the map was replaced or changed its size.
+     * It is only used while the relations are searched, which happens on a single thread.
+     */
+    private Map<String, KubernetesService> matchingServicesByName;
+
+    private Map<KubernetesService, KubernetesDeployment> indexedMatchingServices;
+
+    private int indexedMatchingServicesSize;
+
+    private RelationType connectsToRelationType = new RelationType();
+
+    private RelationType hostedOnRelationType = new RelationType();
+
+
+    public TransformationContext() {
+    }
+
+    public TransformationContext(TechnologyAgnosticDeploymentModel tadm) {
+        this.tadm = tadm;
+    }
+
+    public TechnologyAgnosticDeploymentModel getTadm() {
+        return this.tadm;
+    }
+
+    public void setTadm(TechnologyAgnosticDeploymentModel tadm) {
+        this.tadm = tadm;
+    }
+
+    public Map<KubernetesService, KubernetesDeployment> getMatchingServicesAndDeployments() {
+        return this.matchingServicesAndDeployments;
+    }
+
+    public void setMatchingServicesAndDeployments(Map<KubernetesService, KubernetesDeployment> matchingServicesAndDeployments) {
+        this.matchingServicesAndDeployments = matchingServicesAndDeployments;
+    }
+
+    /**
+     * Returns the deployment matching the service with the given name using a hash index over the matching services.
+     *
+     * @param serviceName
+     * @return an Optional with the matching deployment.
+     */
+    public Optional<KubernetesDeployment> getMatchingDeploymentByServiceName(String serviceName) {
+        if (indexedMatchingServices != matchingServicesAndDeployments || indexedMatchingServicesSize != matchingServicesAndDeployments.size()) {
+            matchingServicesByName = new HashMap<>();
+            for (KubernetesService matchingService : matchingServicesAndDeployments.keySet()) {
+                matchingServicesByName.putIfAbsent(matchingService.getName(), matchingService);
+            }
+            indexedMatchingServices = matchingServicesAndDeployments;
+            indexedMatchingServicesSize = matchingServicesAndDeployments.size();
+        }
+        KubernetesService service = matchingServicesByName.get(serviceName);
+        return service == null ? Optional.empty() : Optional.ofNullable(matchingServicesAndDeployments.get(service));
+    }
+
+    public RelationType getConnectsToRelationType() {
+        return this.connectsToRelationType;
+    }
+
+    public void setConnectsToRelationType(RelationType connectsToRelationType) {
+        this.connectsToRelationType = connectsToRelationType;
+    }
+
+    public RelationType getHostedOnRelationType() {
+        return this.hostedOnRelationType;
+    }
+
+    public void setHostedOnRelationType(RelationType hostedOnRelationType) {
+        this.hostedOnRelationType = hostedOnRelationType;
+    }
+
+    public TransformationContext tadm(TechnologyAgnosticDeploymentModel tadm) {
+        setTadm(tadm);
+        return this;
+    }
+
+    public TransformationContext matchingServicesAndDeployments(Map<KubernetesService, KubernetesDeployment> matchingServicesAndDeployments) {
+        setMatchingServicesAndDeployments(matchingServicesAndDeployments);
+        return this;
+    }
+
+    public TransformationContext connectsToRelationType(RelationType connectsToRelationType) {
+        setConnectsToRelationType(connectsToRelationType);
+        return this;
+    }
+
+    public TransformationContext hostedOnRelationType(RelationType hostedOnRelationType) {
+        setHostedOnRelationType(hostedOnRelationType);
+        return this;
+    }
+
+}
@@ -3,19 +3,27 @@ package ust.tad.kubernetesplugin.analysis;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
 import ust.tad.kubernetesplugin.kubernetesmodel.deployment.ContainerPort;
 import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
 import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Label;
 import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
 import ust.tad.kubernetesplugin.kubernetesmodel.service.Selector;
 import ust.tad.kubernetesplugin.kubernetesmodel.service.ServicePort;
@@ -35,12 +43,27 @@ public class TransformationService {
     @Autowired
     private RelationFinderService relationFinderService;
 
-    private Map<KubernetesService, KubernetesDeployment> matchingServicesAndDeployments = new HashMap<>();
+    @Autowired
+    private ImageArtifactCache imageArtifactCache;
+
+    @Autowired
+    private ForkJoinPool transformationPool;
+
+    @Value("${analysis.transformation.parallel.enabled}")
+    private boolean parallelTransformationEnabled;
+
+    @Value("${analysis.transformation.component-type-deduplication.enabled}")
+    private boolean componentTypeDeduplicationEnabled;
 
     /**
      * Creates EDMM components, component types and relations from the given deployments and services 
      * of the internal Kubernetes model.
      * Adds them to the given technology-agnostic deployment model.
+     * The state of the transformation is kept in a new transformation context, so concurrent calls do not interfere.
+     * If parallel transformation is enabled, the component for each deployment is created by its own task
+     * on the bounded transformation pool.
+     * The components are added in the order of the given deployments in both cases.
+     * If component type deduplication is enabled, components with the same property schema share one component type.
      * 
      * @param tadm
      * @param deployments
@@ -55,61 +78,119 @@ public class TransformationService {
         TechnologyAgnosticDeploymentModel tadm, 
         Set<KubernetesDeployment> deployments,  
         Set<KubernetesService> services) throws InvalidPropertyValueException, InvalidRelationException, URISyntaxException {
+            TransformationContext context = new TransformationContext(tadm);
             List<Component> newComponents = new ArrayList<>();
             List<ComponentType> newComponentTypes = new ArrayList<>();
+            Map<KubernetesDeployment, Set<KubernetesService>> matchingServices = findMatchingServices(deployments, services);
+            if (!parallelTransformationEnabled || deployments.size() < 2) {
+                for (KubernetesDeployment deployment : deployments) {
+                    newComponents.add(createComponent(deployment, matchingServices));
+                }
+            } else {
+                List<Callable<Component>> tasks = new ArrayList<>();
+                for (KubernetesDeployment deployment : deployments) {
+                    tasks.add(() -> createComponent(deployment, matchingServices));
+                }
+                for (Future<Component> future : transformationPool.invokeAll(tasks)) {
+                    newComponents.add(getComponent(future));
+                }
+            }
             for (KubernetesDeployment deployment : deployments) {
-                Component component = new Component();
-                component.setConfidence(Confidence.CONFIRMED);
-                component.setName(deployment.getName());
-
-                for (Container container : deployment.getContainer()) {
-                    List<Artifact> artifacts = component.getArtifacts();
-                    artifacts.add(createArtifactFromImage(container.getImage()));
-                    component.setArtifacts(artifacts);
-
-                    List<Property> properties = component.getProperties();
-                    properties.addAll(createPropertiesForContainerPorts(container.getContainerPorts()));
-                    properties.addAll(createPropertiesForEnvVariables(container.getEnvironmentVariables()));
-                    component.setProperties(properties);
+                for (KubernetesService service : matchingServices.getOrDefault(deployment, Collections.emptySet())) {
+                    context.getMatchingServicesAndDeployments().put(service, deployment);
                 }
-                
-                List<Property> properties = component.getProperties();
-                Set<ContainerPort> containerPorts = new HashSet<>();
-                deployment.getContainer().forEach(container -> containerPorts.addAll(container.getContainerPorts()));
-                properties.addAll(createPropertiesFromMatchingService(services, deployment));
-                component.setProperties(properties);
-
-                ComponentType newComponentType = createTypeForComponent(component);
-                newComponentTypes.add(newComponentType);
-                component.setType(newComponentType);
-                newComponents.add(component);
+            }
+            Map<String, ComponentType> componentTypesBySchema = new HashMap<>();
+            for (Component component : newComponents) {
+                if (componentTypeDeduplicationEnabled) {
+                    ComponentType componentType = componentTypesBySchema.putIfAbsent(createSchemaKey(component.getType()), component.getType());
+                    if (componentType != null) {
+                        component.setType(componentType);
+                        continue;
+                    }
+                }
+                newComponentTypes.add(component.getType());
             }
 
-            List<ComponentType> componentTypes = tadm.getComponentTypes();
-            componentTypes.addAll(newComponentTypes);
-            tadm.setComponentTypes(componentTypes);
-
-            List<Component> components = tadm.getComponents();
-            components.addAll(newComponents);
-            tadm.setComponents(components);
+            tadm.addComponentTypes(newComponentTypes);
+            tadm.addComponents(newComponents);
 
-            tadm = relationFinderService.findAndCreateRelations(tadm, newComponents, this.matchingServicesAndDeployments);
+            relationFinderService.findAndCreateRelations(context, newComponents);
 
             return tadm;
         }
 
     /**
-     * Create an EDMM artifact from a Docker image.
+     * Creates the EDMM component and its component type for a deployment.
+     * Only reads shared state, so it may be called concurrently for different deployments.
+     * 
+     * @param deployment
+     * @param matchingServices
+     * @return the created component.
+     * @throws InvalidPropertyValueException
+     */
+    private Component createComponent(KubernetesDeployment deployment, Map<KubernetesDeployment, Set<KubernetesService>> matchingServices) throws InvalidPropertyValueException {
+        Component component = new Component();
+        component.setConfidence(Confidence.CONFIRMED);
+        component.setName(deployment.getName());
+
+        for (Container container : deployment.getContainer()) {
+            List<Artifact> artifacts = component.getArtifacts();
+            artifacts.add(createArtifactFromImage(container.getImage()));
+            component.setArtifacts(artifacts);
+
+            List<Property> properties = component.getProperties();
+            properties.addAll(createPropertiesForContainerPorts(container.getContainerPorts()));
+            properties.addAll(createPropertiesForEnvVariables(container.getEnvironmentVariables()));
+            component.setProperties(properties);
+        }
+        
+        List<Property> properties = component.getProperties();
+        properties.addAll(createPropertiesFromMatchingService(
+            matchingServices.getOrDefault(deployment, Collections.emptySet()), deployment));
+        component.setProperties(properties);
+
+        component.setType(createTypeForComponent(component));
+        return component;
+    }
+
+    private Component getComponent(Future<Component> future) throws InvalidPropertyValueException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while creating components", e);
+        } catch (ExecutionException e) {
+            Throwable cause = getTaskException(e);
+            if (cause instanceof InvalidPropertyValueException) {
+                throw (InvalidPropertyValueException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Returns the exception thrown by a task.
+     * The fork-join pool wraps checked exceptions of tasks in plain runtime exceptions, these are unwrapped.
+     */
+    private Throwable getTaskException(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause.getClass() == RuntimeException.class && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Gets a new EDMM artifact for a Docker image, which shares the interned image reference of the cache.
      * 
      * @param image
-     * @return the created artifact.
+     * @return the artifact.
      */
     private Artifact createArtifactFromImage(String image) {
-        Artifact artifact = new Artifact();
-        artifact.setName(image);
-        artifact.setType("docker_image");
-        artifact.setConfidence(Confidence.CONFIRMED);
-        return artifact;
+        return imageArtifactCache.getArtifact(image);
     }
 
     /**
@@ -158,31 +239,50 @@ public class TransformationService {
     }
 
     /**
-     * Creates EDMM properties from matching services to deployments.
-     * Iterates over all services and matches deployments where a selector of the service matches the label of a deployment.
-     * Then creates a new property for each port of the service.
+     * Finds the services that match each deployment, i.e., where a selector of the service matches a label of the deployment.
+     * Builds an inverted index from each label in the format "key=value" to the deployments that have it,
+     * so that the selectors of a service are resolved by looking up and merging the deployments for each selector.
      * 
+     * @param deployments
      * @param services
-     * @param labels
-     * @param containerPorts
+     * @return the matching services by deployment.
+     */
+    private Map<KubernetesDeployment, Set<KubernetesService>> findMatchingServices(Set<KubernetesDeployment> deployments, Set<KubernetesService> services) {
+        Map<String, List<KubernetesDeployment>> deploymentsByLabel = new HashMap<>();
+        for (KubernetesDeployment deployment : deployments) {
+            for (Label label : deployment.getLabels()) {
+                deploymentsByLabel.computeIfAbsent(label.getKey() + "=" + label.getValue(), key -> new ArrayList<>()).add(deployment);
+            }
+        }
+
+        Map<KubernetesDeployment, Set<KubernetesService>> matchingServices = new HashMap<>();
+        for (KubernetesService service : services) {
+            for (Selector selector : service.getSelectors()) {
+                for (KubernetesDeployment deployment : deploymentsByLabel.getOrDefault(selector.getKey() + "=" + selector.getValue(), Collections.emptyList())) {
+                    matchingServices.computeIfAbsent(deployment, key -> new LinkedHashSet<>()).add(service);
+                }
+            }
+        }
+        return matchingServices;
+    }
+
+    /**
+     * Creates EDMM properties from the services matching a deployment.
+     * Creates a new property for each port of a service that targets a container port of the deployment.
+     * 
+     * @param matchingServices the services of which a selector matches a label of the deployment.
+     * @param deployment
      * @return the created properties.
      * @throws InvalidPropertyValueException
      */
-    private List<Property> createPropertiesFromMatchingService(Set<KubernetesService> services, KubernetesDeployment deployment) throws InvalidPropertyValueException {        
+    private List<Property> createPropertiesFromMatchingService(Set<KubernetesService> matchingServices, KubernetesDeployment deployment) throws InvalidPropertyValueException {        
         Set<ContainerPort> containerPorts = new HashSet<>();
         deployment.getContainer().forEach(container -> containerPorts.addAll(container.getContainerPorts()));        
         
         Set<Property> properties = new HashSet<>();
-        for (KubernetesService service : services) {
-            for (Selector selector : service.getSelectors()) {
-                if (deployment.getLabels().stream().filter(label -> 
-                    label.getKey().equals(selector.getKey()) &&
-                    label.getValue().equals(selector.getValue())).count() > 0) {
-                        this.matchingServicesAndDeployments.put(service, deployment);
-                        Set<ServicePort> servicePorts = service.getServicePorts();                        
-                        properties.addAll(createPropertiesFromMatchingPorts(servicePorts, containerPorts));
-                }
-            }
+        for (KubernetesService service : matchingServices) {
+            Set<ServicePort> servicePorts = service.getServicePorts();                        
+            properties.addAll(createPropertiesFromMatchingPorts(servicePorts, containerPorts));
         }
         return new ArrayList<>(properties);
     }
@@ -217,6 +317,22 @@ public class TransformationService {
         return properties;
     }
 
+    /**
+     * Creates a canonical key of the property schema of a component type.
+     * The schema consists of the key, type and required flag of each property, regardless of their order.
+     * 
+     * @param componentType
+     * @return the key.
+     */
+    private String createSchemaKey(ComponentType componentType) {
+        List<String> propertySchemas = new ArrayList<>();
+        for (Property property : componentType.getProperties()) {
+            propertySchemas.add(property.getKey() + "\u0000" + property.getType() + "\u0000" + property.getRequired());
+        }
+        Collections.sort(propertySchemas);
+        return String.join("\u0001", propertySchemas);
+    }
+
     /**
      * From the given EDMM component, creates a EDMM componentType.
      * The componentType adopts all properties of the component but without a specific value.
@@ -0,0 +1,270 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+
+/**
+ * Reads the entries of .zip, .tar.gz and .tgz archives sequentially from a stream without extracting them.
+ * Each file entry is passed to the consumer as a stream that ends at the end of the entry and ignores close().
+ */
+public class ArchiveEntryReader {
+
+    private static final int TAR_BLOCK_SIZE = 512;
+
+    private ArchiveEntryReader() {
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(String entryName, InputStream content) throws IOException, InvalidAnnotationException;
+    }
+
+    /**
+     * Checks whether the file name has the extension of a supported archive format.
+     *
+     * @param fileName
+     * @return true if the file is a .zip, .tar.gz or .tgz archive.
+     */
+    public static boolean isArchive(String fileName) {
+        return isZip(fileName) || isTarGz(fileName);
+    }
+
+    /**
+     * Passes all file entries of the archive to the consumer in the order in which they are stored.
+     * The format is determined by the file name of the archive.
+     *
+     * @param archive
+     * @param fileName
+     * @param entryConsumer
+     * @throws IOException
+     * @throws InvalidAnnotationException
+     */
+    public static void readEntries(InputStream archive, String fileName, EntryConsumer entryConsumer) throws IOException, InvalidAnnotationException {
+        if (isZip(fileName)) {
+            readZipEntries(new ZipInputStream(archive), entryConsumer);
+        } else if (isTarGz(fileName)) {
+            readTarEntries(new GZIPInputStream(archive), entryConsumer);
+        } else {
+            throw new IOException("Unsupported archive format: " + fileName);
+        }
+    }
+
+    private static boolean isZip(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    private static boolean isTarGz(String fileName) {
+        String lowerCaseFileName = fileName.toLowerCase(Locale.ROOT);
+        return lowerCaseFileName.endsWith(".tar.gz") || lowerCaseFileName.endsWith(".tgz");
+    }
+
+    private static void readZipEntries(ZipInputStream zip, EntryConsumer entryConsumer) throws IOException, InvalidAnnotationException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                entryConsumer.accept(entry.getName(), new EntryInputStream(zip, Long.MAX_VALUE));
+            }
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * Reads the ustar format including GNU long names and the path record of pax headers.
+     */
+    private static void readTarEntries(InputStream tar, EntryConsumer entryConsumer) throws IOException, InvalidAnnotationException {
+        byte[] header = new byte[TAR_BLOCK_SIZE];
+        String longName = null;
+        while (readBlock(tar, header) && !isZeroBlock(header)) {
+            String name = readString(header, 0, 100);
+            long size = readOctal(header, 124, 12);
+            char type = (char) header[156];
+            String prefix = readString(header, 345, 155);
+            if (!prefix.isEmpty()) {
+                name = prefix + "/" + name;
+            }
+
+            if (type == 'L' || type == 'x') {
+                String value = new String(readFully(tar, size), StandardCharsets.UTF_8);
+                longName = type == 'L' ? trimNull(value) : readPaxPath(value, longName);
+                skipPadding(tar, size);
+                continue;
+            }
+            if (longName != null) {
+                name = longName;
+                longName = null;
+            }
+
+            EntryInputStream content = new EntryInputStream(tar, size);
+            if (type == '0' || type == '\0' || type == '7') {
+                entryConsumer.accept(name, content);
+            }
+            content.skipRemaining();
+            skipPadding(tar, size);
+        }
+    }
+
+    private static boolean readBlock(InputStream in, byte[] block) throws IOException {
+        int read = in.readNBytes(block, 0, block.length);
+        if (read == 0) {
+            return false;
+        }
+        if (read < block.length) {
+            throw new IOException("Truncated tar archive");
+        }
+        return true;
+    }
+
+    private static boolean isZeroBlock(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] readFully(InputStream in, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Tar header too large");
+        }
+        byte[] bytes = in.readNBytes((int) size);
+        if (bytes.length < size) {
+            throw new IOException("Truncated tar archive");
+        }
+        return bytes;
+    }
+
+    private static void skipPadding(InputStream in, long size) throws IOException {
+        long padding = (TAR_BLOCK_SIZE - size % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE;
+        skipFully(in, padding);
+    }
+
+    private static void skipFully(InputStream in, long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new IOException("Truncated tar archive");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    private static String readString(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static long readOctal(byte[] header, int offset, int length) throws IOException {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (value > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (b < '0' || b > '7') {
+                throw new IOException("Invalid size in tar header");
+            }
+            value = value * 8 + (b - '0');
+        }
+        return value;
+    }
+
+    private static String trimNull(String value) {
+        int end = value.indexOf('\0');
+        return end < 0 ? value : value.substring(0, end);
+    }
+
+    /**
+     * Returns the path record of a pax extended header, records have the form "length key=value\n".
+     */
+    private static String readPaxPath(String records, String defaultPath) {
+        for (String record : records.split("\n")) {
+            int keyStart = record.indexOf(' ') + 1;
+            if (record.startsWith("path=", keyStart)) {
+                return record.substring(keyStart + "path=".length());
+            }
+        }
+        return defaultPath;
+    }
+
+    /**
+     * A view of the current entry that ends after the given number of bytes and does not close the archive stream.
+     */
+    private static class EntryInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        EntryInputStream(InputStream in, long size) {
+            super(in);
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        void skipRemaining() throws IOException {
+            skipFully(in, remaining);
+            remaining = 0;
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A view on a range of UTF-8 encoded bytes that is only decoded when toString() is called.
+ * charAt() returns the raw byte, which is sufficient for finding YAML indicators as all of them are ASCII characters
+ * and UTF-8 never uses ASCII bytes inside multi-byte sequences.
+ */
+public class ByteSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+
+    private int offset;
+
+    private int length;
+
+
+    public ByteSequence(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Moves this view to another range of the same buffer.
+     *
+     * @param offset
+     * @param length
+     */
+    void reset(int offset, int length) {
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(offset + index) & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new ByteSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,518 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.ContainerPort;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Label;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.Selector;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.ServicePort;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+import ust.tad.kubernetesplugin.models.tsdm.LineRange;
+
+/**
+ * Builds KubernetesDeployments, KubernetesServices and the line annotations of a manifest file
+ * from the events of a {@link YamlEventReader}.
+ * As the kind of a document may appear after its metadata and spec, every line is flagged with the kinds
+ * for which its content is understood and the flags are resolved to line ranges when the document ends.
+ * Once the kind of a document is known to be neither Service, Deployment nor StatefulSet,
+ * the rest of the document is skipped and annotated as one range.
+ */
+public class KubernetesManifestHandler implements YamlEventHandler {
+
+    private static final byte SERVICE = 1;
+    private static final byte DEPLOYMENT = 2;
+    private static final byte ANY = SERVICE | DEPLOYMENT;
+
+    /**
+     * The position of a mapping or sequence inside a Kubernetes resource.
+     */
+    private enum Node {
+        ROOT, METADATA, LABELS, SPEC, SELECTOR, DEPLOYMENT_SELECTOR, SERVICE_PORTS, SERVICE_PORT, TEMPLATE,
+        TEMPLATE_METADATA, POD_SPEC, CONTAINERS, CONTAINER, CONTAINER_PORTS, CONTAINER_PORT, ENV, ENV_VAR, OTHER
+    }
+
+    /**
+     * The scalar values that are kept for the internal Kubernetes model.
+     */
+    private enum Leaf {
+        NONE, KIND, NAME, LABEL, REPLICAS, SELECTOR, SERVICE_PORT_NAME, SERVICE_PORT_PORT, SERVICE_PORT_TARGET_PORT,
+        CONTAINER_NAME, CONTAINER_IMAGE, CONTAINER_PORT_NAME, CONTAINER_PORT_PORT, ENV_NAME, ENV_VALUE
+    }
+
+    private static class Frame {
+        private final Node node;
+        private final boolean sequence;
+        private boolean expectKey = true;
+        private Node valueNode = Node.OTHER;
+        private byte valueFlags = 0;
+        private Leaf leaf = Leaf.NONE;
+        private String key;
+
+        private Frame(Node node, boolean sequence) {
+            this.node = node;
+            this.sequence = sequence;
+        }
+    }
+
+    private static class PortEntry {
+        private String name;
+        private String port;
+        private String targetPort;
+    }
+
+    private static class ContainerEntry {
+        private String name;
+        private String image;
+        private List<PortEntry> ports = new ArrayList<>();
+        private List<EnvironmentVariable> environmentVariables = new ArrayList<>();
+    }
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    private byte[] lineFlags = new byte[256];
+
+    private final List<int[]> lineRanges = new ArrayList<>();
+
+    private int documentStartLineNumber;
+
+    private String kind;
+
+    private String name;
+
+    private String replicas;
+
+    private Set<Label> labels = new HashSet<>();
+
+    private Set<Selector> selectors = new HashSet<>();
+
+    private List<PortEntry> servicePorts = new ArrayList<>();
+
+    private List<ContainerEntry> containers = new ArrayList<>();
+
+    private PortEntry currentPort;
+
+    private ContainerEntry currentContainer;
+
+    private EnvironmentVariable currentEnvironmentVariable;
+
+    private final Set<KubernetesDeployment> deployments = new HashSet<>();
+
+    private final Set<KubernetesService> services = new HashSet<>();
+
+
+    @Override
+    public void documentStart(int lineNumber) {
+        documentStartLineNumber = lineNumber;
+        frames.clear();
+        kind = null;
+        name = null;
+        replicas = null;
+        labels = new HashSet<>();
+        selectors = new HashSet<>();
+        servicePorts = new ArrayList<>();
+        containers = new ArrayList<>();
+    }
+
+    @Override
+    public void documentEnd(int lineNumber) {
+        ensureCapacity(lineNumber);
+        if ("Service".equals(kind)) {
+            services.add(createService());
+            addLineRanges(lineNumber, SERVICE);
+        } else if ("Deployment".equals(kind) || "StatefulSet".equals(kind)) {
+            deployments.add(createDeployment());
+            addLineRanges(lineNumber, DEPLOYMENT);
+        } else if (kind != null) {
+            addLineRange(documentStartLineNumber, lineNumber, false);
+        }
+        Arrays.fill(lineFlags, 0, lineNumber - documentStartLineNumber + 1, (byte) 0);
+    }
+
+    /**
+     * Skips the rest of the document as soon as its kind is known and not a kind that is transformed.
+     */
+    @Override
+    public boolean isSkippingDocument() {
+        return kind != null && !"Service".equals(kind) && !"Deployment".equals(kind) && !"StatefulSet".equals(kind);
+    }
+
+    @Override
+    public void mappingStart(int lineNumber, int column) {
+        Node node = startNode();
+        frames.push(new Frame(node, false));
+        switch (node) {
+            case SERVICE_PORT:
+            case CONTAINER_PORT:
+                currentPort = new PortEntry();
+                break;
+            case CONTAINER:
+                currentContainer = new ContainerEntry();
+                break;
+            case ENV_VAR:
+                currentEnvironmentVariable = new EnvironmentVariable();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void mappingEnd() {
+        Frame frame = frames.pop();
+        switch (frame.node) {
+            case SERVICE_PORT:
+                servicePorts.add(currentPort);
+                break;
+            case CONTAINER_PORT:
+                if (currentContainer != null) {
+                    currentContainer.ports.add(currentPort);
+                }
+                break;
+            case CONTAINER:
+                containers.add(currentContainer);
+                currentContainer = null;
+                break;
+            case ENV_VAR:
+                if (currentContainer != null && currentEnvironmentVariable.getKey() != null && currentEnvironmentVariable.getValue() != null) {
+                    currentContainer.environmentVariables.add(currentEnvironmentVariable);
+                }
+                break;
+            default:
+                break;
+        }
+        endNode();
+    }
+
+    @Override
+    public void sequenceStart(int lineNumber, int column) {
+        frames.push(new Frame(startNode(), true));
+    }
+
+    @Override
+    public void sequenceEnd() {
+        frames.pop();
+        endNode();
+    }
+
+    @Override
+    public void scalar(CharSequence value, int lineNumber, int column, int endLineNumber) {
+        Frame frame = frames.peek();
+        if (frame == null) {
+            return;
+        }
+        if (frame.sequence) {
+            flagLines(lineNumber, endLineNumber, flagsOfItems(frame.node));
+        } else if (frame.expectKey) {
+            resolveKey(frame, value);
+            flagLines(lineNumber, endLineNumber, frame.valueFlags);
+            frame.expectKey = false;
+        } else {
+            flagLines(lineNumber + 1, endLineNumber, frame.valueFlags);
+            storeValue(frame, value);
+            frame.expectKey = true;
+        }
+    }
+
+    /**
+     * Creates the annotated lines of all documents read so far,
+     * merging consecutive lines with the same annotations into one range.
+     *
+     * @return the parse result of the file.
+     * @throws InvalidAnnotationException
+     */
+    public ParseResult getResult() throws InvalidAnnotationException {
+        List<LineRange> result = new ArrayList<>();
+        for (int[] lineRange : lineRanges) {
+            result.add(new LineRange(lineRange[0], lineRange[1], lineRange[2], true));
+        }
+        return new ParseResult(result, new HashSet<>(deployments), new HashSet<>(services));
+    }
+
+    private void addLineRanges(int documentEndLineNumber, byte kindFlag) {
+        for (int i = documentStartLineNumber; i <= documentEndLineNumber; i++) {
+            addLineRange(i, i, (lineFlags[i - documentStartLineNumber] & kindFlag) != 0);
+        }
+    }
+
+    /**
+     * Adds the lines to the last range if they continue it with the same annotation, otherwise starts a new range.
+     */
+    private void addLineRange(int fromLineNumber, int toLineNumber, boolean comprehended) {
+        int comprehensibility = comprehended ? 1 : 0;
+        int[] last = lineRanges.isEmpty() ? null : lineRanges.get(lineRanges.size() - 1);
+        if (last != null && last[1] + 1 == fromLineNumber && last[2] == comprehensibility) {
+            last[1] = toLineNumber;
+        } else {
+            lineRanges.add(new int[] {fromLineNumber, toLineNumber, comprehensibility});
+        }
+    }
+
+    private Node startNode() {
+        Frame parent = frames.peek();
+        if (parent == null) {
+            return Node.ROOT;
+        } else if (parent.sequence) {
+            return itemNode(parent.node);
+        } else {
+            return parent.valueNode;
+        }
+    }
+
+    private void endNode() {
+        Frame parent = frames.peek();
+        if (parent != null && !parent.sequence) {
+            parent.expectKey = true;
+        }
+    }
+
+    /**
+     * Determines for a key in the given mapping which node its value is, for which kinds the key is understood
+     * and whether its value is kept.
+     */
+    private void resolveKey(Frame frame, CharSequence key) {
+        frame.valueNode = Node.OTHER;
+        frame.valueFlags = 0;
+        frame.leaf = Leaf.NONE;
+        switch (frame.node) {
+            case ROOT:
+                if (is(key, "kind")) {
+                    set(frame, Node.OTHER, ANY, Leaf.KIND);
+                } else if (is(key, "metadata")) {
+                    set(frame, Node.METADATA, ANY, Leaf.NONE);
+                } else if (is(key, "spec")) {
+                    set(frame, Node.SPEC, ANY, Leaf.NONE);
+                }
+                break;
+            case METADATA:
+                if (is(key, "name")) {
+                    set(frame, Node.OTHER, ANY, Leaf.NAME);
+                } else if (is(key, "labels")) {
+                    set(frame, Node.LABELS, ANY, Leaf.NONE);
+                }
+                break;
+            case LABELS:
+                set(frame, Node.OTHER, ANY, Leaf.LABEL);
+                frame.key = key.toString();
+                break;
+            case SPEC:
+                if (is(key, "replicas")) {
+                    set(frame, Node.OTHER, DEPLOYMENT, Leaf.REPLICAS);
+                } else if (is(key, "selector")) {
+                    set(frame, Node.SELECTOR, ANY, Leaf.NONE);
+                } else if (is(key, "ports")) {
+                    set(frame, Node.SERVICE_PORTS, SERVICE, Leaf.NONE);
+                } else if (is(key, "template")) {
+                    set(frame, Node.TEMPLATE, DEPLOYMENT, Leaf.NONE);
+                }
+                break;
+            case SELECTOR:
+                set(frame, Node.DEPLOYMENT_SELECTOR, ANY, Leaf.SELECTOR);
+                frame.key = key.toString();
+                break;
+            case DEPLOYMENT_SELECTOR:
+            case TEMPLATE_METADATA:
+                set(frame, frame.node, DEPLOYMENT, Leaf.NONE);
+                break;
+            case SERVICE_PORT:
+                if (is(key, "name")) {
+                    set(frame, Node.OTHER, SERVICE, Leaf.SERVICE_PORT_NAME);
+                } else if (is(key, "port")) {
+                    set(frame, Node.OTHER, SERVICE, Leaf.SERVICE_PORT_PORT);
+                } else if (is(key, "targetPort")) {
+                    set(frame, Node.OTHER, SERVICE, Leaf.SERVICE_PORT_TARGET_PORT);
+                }
+                break;
+            case TEMPLATE:
+                if (is(key, "metadata")) {
+                    set(frame, Node.TEMPLATE_METADATA, DEPLOYMENT, Leaf.NONE);
+                } else if (is(key, "spec")) {
+                    set(frame, Node.POD_SPEC, DEPLOYMENT, Leaf.NONE);
+                }
+                break;
+            case POD_SPEC:
+                if (is(key, "containers")) {
+                    set(frame, Node.CONTAINERS, DEPLOYMENT, Leaf.NONE);
+                }
+                break;
+            case CONTAINER:
+                if (is(key, "name")) {
+                    set(frame, Node.OTHER, DEPLOYMENT, Leaf.CONTAINER_NAME);
+                } else if (is(key, "image")) {
+                    set(frame, Node.OTHER, DEPLOYMENT, Leaf.CONTAINER_IMAGE);
+                } else if (is(key, "ports")) {
+                    set(frame, Node.CONTAINER_PORTS, DEPLOYMENT, Leaf.NONE);
+                } else if (is(key, "env")) {
+                    set(frame, Node.ENV, DEPLOYMENT, Leaf.NONE);
+                }
+                break;
+            case CONTAINER_PORT:
+                if (is(key, "name")) {
+                    set(frame, Node.OTHER, DEPLOYMENT, Leaf.CONTAINER_PORT_NAME);
+                } else if (is(key, "containerPort")) {
+                    set(frame, Node.OTHER, DEPLOYMENT, Leaf.CONTAINER_PORT_PORT);
+                }
+                break;
+            case ENV_VAR:
+                if (is(key, "name")) {
+                    set(frame, Node.OTHER, DEPLOYMENT, Leaf.ENV_NAME);
+                } else if (is(key, "value")) {
+                    set(frame, Node.OTHER, DEPLOYMENT, Leaf.ENV_VALUE);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void storeValue(Frame frame, CharSequence value) {
+        switch (frame.leaf) {
+            case KIND:
+                kind = value.toString();
+                break;
+            case NAME:
+                name = value.toString();
+                break;
+            case LABEL:
+                labels.add(new Label(frame.key, value.toString()));
+                break;
+            case REPLICAS:
+                replicas = value.toString();
+                break;
+            case SELECTOR:
+                selectors.add(new Selector(frame.key, value.toString()));
+                break;
+            case SERVICE_PORT_NAME:
+            case CONTAINER_PORT_NAME:
+                currentPort.name = value.toString();
+                break;
+            case SERVICE_PORT_PORT:
+            case CONTAINER_PORT_PORT:
+                currentPort.port = value.toString();
+                break;
+            case SERVICE_PORT_TARGET_PORT:
+                currentPort.targetPort = value.toString();
+                break;
+            case CONTAINER_NAME:
+                currentContainer.name = value.toString();
+                break;
+            case CONTAINER_IMAGE:
+                currentContainer.image = value.toString();
+                break;
+            case ENV_NAME:
+                currentEnvironmentVariable.setKey(value.toString());
+                break;
+            case ENV_VALUE:
+                currentEnvironmentVariable.setValue(value.toString());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private KubernetesService createService() {
+        KubernetesService kubernetesService = new KubernetesService();
+        kubernetesService.setName(name);
+        kubernetesService.setSelectors(selectors);
+        Set<ServicePort> ports = new HashSet<>();
+        for (PortEntry portEntry : servicePorts) {
+            ServicePort servicePort = new ServicePort();
+            servicePort.setName(portEntry.name);
+            if (portEntry.port != null) {
+                servicePort.setPort(Integer.parseInt(portEntry.port));
+            }
+            servicePort.setTargetPort(portEntry.targetPort);
+            ports.add(servicePort);
+        }
+        kubernetesService.setServicePorts(ports);
+        return kubernetesService;
+    }
+
+    private KubernetesDeployment createDeployment() {
+        KubernetesDeployment kubernetesDeployment = new KubernetesDeployment();
+        kubernetesDeployment.setName(name);
+        if (replicas != null) {
+            kubernetesDeployment.setReplicas(Integer.parseInt(replicas));
+        }
+        kubernetesDeployment.setLabels(labels);
+        Set<Container> containerSet = new HashSet<>();
+        for (ContainerEntry containerEntry : containers) {
+            Container container = new Container();
+            container.setName(containerEntry.name);
+            container.setImage(containerEntry.image);
+            Set<ContainerPort> containerPorts = new HashSet<>();
+            for (PortEntry portEntry : containerEntry.ports) {
+                ContainerPort containerPort = new ContainerPort();
+                containerPort.setName(portEntry.name);
+                if (portEntry.port != null) {
+                    containerPort.setPort(Integer.parseInt(portEntry.port));
+                }
+                containerPorts.add(containerPort);
+            }
+            container.setContainerPorts(containerPorts);
+            container.setEnvironmentVariables(new HashSet<>(containerEntry.environmentVariables));
+            containerSet.add(container);
+        }
+        kubernetesDeployment.setContainer(containerSet);
+        return kubernetesDeployment;
+    }
+
+    private static void set(Frame frame, Node valueNode, byte valueFlags, Leaf leaf) {
+        frame.valueNode = valueNode;
+        frame.valueFlags = valueFlags;
+        frame.leaf = leaf;
+    }
+
+    private static Node itemNode(Node sequenceNode) {
+        switch (sequenceNode) {
+            case SERVICE_PORTS:
+                return Node.SERVICE_PORT;
+            case CONTAINERS:
+                return Node.CONTAINER;
+            case CONTAINER_PORTS:
+                return Node.CONTAINER_PORT;
+            case ENV:
+                return Node.ENV_VAR;
+            case DEPLOYMENT_SELECTOR:
+            case TEMPLATE_METADATA:
+                return sequenceNode;
+            default:
+                return Node.OTHER;
+        }
+    }
+
+    private static byte flagsOfItems(Node sequenceNode) {
+        return sequenceNode == Node.DEPLOYMENT_SELECTOR || sequenceNode == Node.TEMPLATE_METADATA ? DEPLOYMENT : 0;
+    }
+
+    private void flagLines(int fromLineNumber, int toLineNumber, byte flags) {
+        ensureCapacity(toLineNumber);
+        for (int i = fromLineNumber; i <= toLineNumber; i++) {
+            lineFlags[i - documentStartLineNumber] |= flags;
+        }
+    }
+
+    /**
+     * Makes sure that the flags of the current document can hold the line with the given number.
+     */
+    private void ensureCapacity(int lineNumber) {
+        int index = lineNumber - documentStartLineNumber;
+        if (index >= lineFlags.length) {
+            lineFlags = Arrays.copyOf(lineFlags, Math.max(index + 1, lineFlags.length * 2));
+        }
+    }
+
+    private static boolean is(CharSequence key, String expected) {
+        return expected.contentEquals(key);
+    }
+
+}
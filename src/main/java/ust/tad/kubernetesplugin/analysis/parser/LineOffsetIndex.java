@@ -0,0 +1,97 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The byte offsets at which the lines of a file start.
+ * Allows to read a range of lines without scanning the file from its beginning.
+ * The size and modification time of the file at indexing time are kept to detect outdated indexes.
+ */
+public class LineOffsetIndex {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long[] lineOffsets;
+
+    private final int numberOfLines;
+
+    private final long fileSize;
+
+    private final long lastModified;
+
+
+    private LineOffsetIndex(long[] lineOffsets, int numberOfLines, long fileSize, long lastModified) {
+        this.lineOffsets = lineOffsets;
+        this.numberOfLines = numberOfLines;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Scans the file once for line breaks and creates the index.
+     *
+     * @param path
+     * @return the created index.
+     * @throws IOException
+     */
+    public static LineOffsetIndex build(Path path) throws IOException {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long[] lineOffsets = new long[1024];
+            int numberOfLines = fileSize > 0 ? 1 : 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long position = 0;
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    position++;
+                    if (buffer.get() == '\n' && position < fileSize) {
+                        if (numberOfLines == lineOffsets.length) {
+                            lineOffsets = Arrays.copyOf(lineOffsets, numberOfLines * 2);
+                        }
+                        lineOffsets[numberOfLines++] = position;
+                    }
+                }
+                buffer.clear();
+            }
+            return new LineOffsetIndex(lineOffsets, numberOfLines, fileSize, lastModified);
+        }
+    }
+
+    public int getNumberOfLines() {
+        return this.numberOfLines;
+    }
+
+    /**
+     * Returns the byte offset at which the line with the given number starts.
+     * For the line after the last line, the size of the file is returned.
+     *
+     * @param lineNumber
+     * @return the byte offset of the line.
+     */
+    public long getOffset(int lineNumber) {
+        if (lineNumber > numberOfLines) {
+            return fileSize;
+        }
+        return lineOffsets[lineNumber - 1];
+    }
+
+    /**
+     * Checks whether the index still matches the file with the given size and modification time.
+     *
+     * @param fileSize
+     * @param lastModified
+     * @return true if the file is unchanged.
+     */
+    public boolean isUpToDate(long fileSize, long lastModified) {
+        return this.fileSize == fileSize && this.lastModified == lastModified;
+    }
+
+}
@@ -0,0 +1,182 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.function.Consumer;
+
+/**
+ * Reads the lines of a file by memory-mapping it and searching for line breaks on the byte level.
+ * The lines are passed as {@link ByteSequence} views, so only the values that are kept are decoded to strings.
+ * Files larger than the maximum size of a mapping are mapped in consecutive windows.
+ */
+public class MappedFileLineReader {
+
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+
+    private MappedFileLineReader() {
+    }
+
+    /**
+     * Passes all lines of the file without their line breaks to the consumer.
+     * The passed line is only valid for the duration of the call.
+     *
+     * @param path
+     * @param lineConsumer
+     * @throws IOException
+     */
+    public static void readLines(Path path, Consumer<CharSequence> lineConsumer) throws IOException {
+        readLines(path, 0, Long.MAX_VALUE, lineConsumer, MAX_WINDOW_SIZE);
+    }
+
+    /**
+     * Passes the lines between the given byte offsets without their line breaks to the consumer.
+     * The start offset has to be the beginning of a line, e.g., taken from a {@link LineOffsetIndex}.
+     *
+     * @param path
+     * @param startOffset
+     * @param endOffset
+     * @param lineConsumer
+     * @throws IOException
+     */
+    public static void readLines(Path path, long startOffset, long endOffset, Consumer<CharSequence> lineConsumer) throws IOException {
+        readLines(path, startOffset, endOffset, lineConsumer, MAX_WINDOW_SIZE);
+    }
+
+    /**
+     * Passes all lines of the given file content without their line breaks to the consumer,
+     * e.g., of a file mapped with {@link #map(Path)} that has already been hashed.
+     * The passed line is only valid for the duration of the call.
+     *
+     * @param content
+     * @param lineConsumer
+     */
+    public static void readLines(ByteBuffer content, Consumer<CharSequence> lineConsumer) {
+        readWindow(content, content.limit(), true, true, lineConsumer, null);
+    }
+
+    /**
+     * Passes all lines of the given content without their line breaks to the consumer
+     * and updates the digest with the bytes of each line and its line break right after the line was passed,
+     * so the digest covers exactly the bytes that were read, even if a mapped file changes in the meantime.
+     * A byte order mark is only skipped at the start of a file.
+     *
+     * @param content
+     * @param startOfFile whether the content starts at the beginning of the file.
+     * @param lineConsumer
+     * @param messageDigest
+     */
+    public static void readLines(ByteBuffer content, boolean startOfFile, Consumer<CharSequence> lineConsumer, MessageDigest messageDigest) {
+        readWindow(content, content.limit(), startOfFile, true, lineConsumer, messageDigest);
+    }
+
+    /**
+     * Maps a whole file read-only, so it can be hashed and parsed without copying it to the heap.
+     *
+     * @param path
+     * @return the mapped content of the file.
+     * @throws IOException if the file cannot be read or is larger than the maximum size of a mapping.
+     */
+    public static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > MAX_WINDOW_SIZE) {
+                throw new IOException("File exceeds the maximum mapping size: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Maps the bytes between the given offsets of a file read-only.
+     * The end offset is limited to the size of the file.
+     *
+     * @param path
+     * @param startOffset
+     * @param endOffset
+     * @return the mapped content between the offsets.
+     * @throws IOException if the file cannot be read or the range is larger than the maximum size of a mapping.
+     */
+    public static MappedByteBuffer map(Path path, long startOffset, long endOffset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = Math.max(startOffset, Math.min(endOffset, channel.size()));
+            if (end - startOffset > MAX_WINDOW_SIZE) {
+                throw new IOException("Range exceeds the maximum mapping size: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, startOffset, end - startOffset);
+        }
+    }
+
+    static void readLines(Path path, long startOffset, long endOffset, Consumer<CharSequence> lineConsumer, int maxWindowSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = Math.min(endOffset, channel.size());
+            long windowStart = startOffset;
+            boolean firstWindow = windowStart == 0;
+            while (windowStart < end) {
+                int windowSize = (int) Math.min(end - windowStart, maxWindowSize);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+                boolean lastWindow = windowStart + windowSize == end;
+                int lineStart = readWindow(buffer, windowSize, firstWindow, lastWindow, lineConsumer, null);
+                firstWindow = false;
+                if (!lastWindow && lineStart == 0) {
+                    throw new IOException("Line exceeds the maximum mapping size in " + path);
+                }
+                windowStart += lastWindow ? windowSize : lineStart;
+            }
+        }
+    }
+
+    /**
+     * Passes the complete lines of a window to the consumer, and the incomplete last line only if it is the last window.
+     * If a digest is given, it is updated with the bytes that were passed, including the skipped byte order mark.
+     *
+     * @return the start of the incomplete last line in the window.
+     */
+    private static int readWindow(ByteBuffer buffer, int windowSize, boolean firstWindow, boolean lastWindow,
+        Consumer<CharSequence> lineConsumer, MessageDigest messageDigest) {
+        int lineStart = firstWindow ? skipByteOrderMark(buffer) : 0;
+        update(messageDigest, buffer, 0, lineStart);
+        ByteSequence line = new ByteSequence(buffer, 0, 0);
+        for (int i = lineStart; i < windowSize; i++) {
+            if (buffer.get(i) == '\n') {
+                line.reset(lineStart, lengthWithoutCarriageReturn(buffer, lineStart, i));
+                lineConsumer.accept(line);
+                update(messageDigest, buffer, lineStart, i + 1);
+                lineStart = i + 1;
+            }
+        }
+        if (lastWindow && lineStart < windowSize) {
+            line.reset(lineStart, lengthWithoutCarriageReturn(buffer, lineStart, windowSize));
+            lineConsumer.accept(line);
+            update(messageDigest, buffer, lineStart, windowSize);
+        }
+        return lineStart;
+    }
+
+    private static void update(MessageDigest messageDigest, ByteBuffer buffer, int start, int end) {
+        if (messageDigest != null && start < end) {
+            ByteBuffer bytes = buffer.duplicate();
+            bytes.limit(end);
+            bytes.position(start);
+            messageDigest.update(bytes);
+        }
+    }
+
+    private static int skipByteOrderMark(ByteBuffer buffer) {
+        if (buffer.limit() >= 3 && (buffer.get(0) & 0xff) == 0xEF && (buffer.get(1) & 0xff) == 0xBB && (buffer.get(2) & 0xff) == 0xBF) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private static int lengthWithoutCarriageReturn(ByteBuffer buffer, int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            return end - 1 - start;
+        }
+        return end - start;
+    }
+
+}
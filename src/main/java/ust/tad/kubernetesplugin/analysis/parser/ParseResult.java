@@ -0,0 +1,83 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.models.tsdm.LineRange;
+
+/**
+ * The deployments, services and line range annotations parsed from one manifest file.
+ */
+public class ParseResult {
+
+    private List<LineRange> lineRanges = new ArrayList<>();
+
+    private Set<KubernetesDeployment> deployments = new HashSet<>();
+
+    private Set<KubernetesService> services = new HashSet<>();
+
+
+    public ParseResult() {
+    }
+
+    public ParseResult(List<LineRange> lineRanges, Set<KubernetesDeployment> deployments, Set<KubernetesService> services) {
+        this.lineRanges = lineRanges;
+        this.deployments = deployments;
+        this.services = services;
+    }
+
+    public List<LineRange> getLineRanges() {
+        return this.lineRanges;
+    }
+
+    public void setLineRanges(List<LineRange> lineRanges) {
+        this.lineRanges = lineRanges;
+    }
+
+    public Set<KubernetesDeployment> getDeployments() {
+        return this.deployments;
+    }
+
+    public void setDeployments(Set<KubernetesDeployment> deployments) {
+        this.deployments = deployments;
+    }
+
+    public Set<KubernetesService> getServices() {
+        return this.services;
+    }
+
+    public void setServices(Set<KubernetesService> services) {
+        this.services = services;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof ParseResult)) {
+            return false;
+        }
+        ParseResult parseResult = (ParseResult) o;
+        return Objects.equals(lineRanges, parseResult.lineRanges) && Objects.equals(deployments, parseResult.deployments) && Objects.equals(services, parseResult.services);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lineRanges, deployments, services);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+            " lineRanges='" + getLineRanges() + "'" +
+            ", deployments='" + getDeployments() + "'" +
+            ", services='" + getServices() + "'" +
+            "}";
+    }
+
+}
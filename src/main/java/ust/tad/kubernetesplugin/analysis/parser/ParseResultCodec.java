@@ -0,0 +1,207 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.ContainerPort;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Label;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.Selector;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.ServicePort;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+import ust.tad.kubernetesplugin.models.tsdm.LineRange;
+
+/**
+ * Compact binary encoding of parse results.
+ * Numbers and lengths are written as variable-length integers,
+ * line numbers relative to the end of the previous line range, and strings as UTF-8 bytes prefixed by their length, where a length of zero marks a null value.
+ */
+public class ParseResultCodec {
+
+    private static final int MAGIC = 0x4B505231;
+
+    private static final int VERSION = 2;
+
+    private ParseResultCodec() {
+    }
+
+    /**
+     * Writes the parse result to the stream.
+     *
+     * @param parseResult
+     * @param out
+     * @throws IOException
+     */
+    public static void write(ParseResult parseResult, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        writeVarInt(out, VERSION);
+
+        writeVarInt(out, parseResult.getLineRanges().size());
+        int previousLineNumber = 0;
+        for (LineRange lineRange : parseResult.getLineRanges()) {
+            writeVarInt(out, lineRange.getStartLineNumber() - previousLineNumber);
+            writeVarInt(out, lineRange.getEndLineNumber() - lineRange.getStartLineNumber());
+            out.writeDouble(lineRange.getComprehensibility());
+            out.writeBoolean(lineRange.isAnalyzed());
+            previousLineNumber = lineRange.getEndLineNumber();
+        }
+
+        writeVarInt(out, parseResult.getDeployments().size());
+        for (KubernetesDeployment deployment : parseResult.getDeployments()) {
+            writeString(out, deployment.getName());
+            writeVarInt(out, deployment.getReplicas());
+            writeVarInt(out, deployment.getLabels().size());
+            for (Label label : deployment.getLabels()) {
+                writeString(out, label.getKey());
+                writeString(out, label.getValue());
+            }
+            writeVarInt(out, deployment.getContainer().size());
+            for (Container container : deployment.getContainer()) {
+                writeString(out, container.getName());
+                writeString(out, container.getImage());
+                writeVarInt(out, container.getContainerPorts().size());
+                for (ContainerPort containerPort : container.getContainerPorts()) {
+                    writeString(out, containerPort.getName());
+                    writeVarInt(out, containerPort.getPort());
+                }
+                writeVarInt(out, container.getEnvironmentVariables().size());
+                for (EnvironmentVariable environmentVariable : container.getEnvironmentVariables()) {
+                    writeString(out, environmentVariable.getKey());
+                    writeString(out, environmentVariable.getValue());
+                }
+            }
+        }
+
+        writeVarInt(out, parseResult.getServices().size());
+        for (KubernetesService service : parseResult.getServices()) {
+            writeString(out, service.getName());
+            writeVarInt(out, service.getServicePorts().size());
+            for (ServicePort servicePort : service.getServicePorts()) {
+                writeString(out, servicePort.getName());
+                writeVarInt(out, servicePort.getPort());
+                writeString(out, servicePort.getTargetPort());
+            }
+            writeVarInt(out, service.getSelectors().size());
+            for (Selector selector : service.getSelectors()) {
+                writeString(out, selector.getKey());
+                writeString(out, selector.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads a parse result that was written by {@link #write(ParseResult, DataOutputStream)}.
+     *
+     * @param in
+     * @return the parse result.
+     * @throws IOException if the data is not a parse result of the current version.
+     * @throws InvalidAnnotationException
+     */
+    public static ParseResult read(DataInputStream in) throws IOException, InvalidAnnotationException {
+        if (in.readInt() != MAGIC || readVarInt(in) != VERSION) {
+            throw new IOException("Unsupported parse result encoding");
+        }
+
+        int numberOfLineRanges = readVarInt(in);
+        List<LineRange> lineRanges = new ArrayList<>(numberOfLineRanges);
+        int lineNumber = 0;
+        for (int i = 0; i < numberOfLineRanges; i++) {
+            int startLineNumber = lineNumber + readVarInt(in);
+            lineNumber = startLineNumber + readVarInt(in);
+            lineRanges.add(new LineRange(startLineNumber, lineNumber, in.readDouble(), in.readBoolean()));
+        }
+
+        int numberOfDeployments = readVarInt(in);
+        Set<KubernetesDeployment> deployments = new HashSet<>();
+        for (int i = 0; i < numberOfDeployments; i++) {
+            String name = readString(in);
+            int replicas = readVarInt(in);
+            Set<Label> labels = new HashSet<>();
+            for (int j = readVarInt(in); j > 0; j--) {
+                labels.add(new Label(readString(in), readString(in)));
+            }
+            Set<Container> containers = new HashSet<>();
+            for (int j = readVarInt(in); j > 0; j--) {
+                String containerName = readString(in);
+                String image = readString(in);
+                Set<ContainerPort> containerPorts = new HashSet<>();
+                for (int k = readVarInt(in); k > 0; k--) {
+                    containerPorts.add(new ContainerPort(readString(in), readVarInt(in)));
+                }
+                Set<EnvironmentVariable> environmentVariables = new HashSet<>();
+                for (int k = readVarInt(in); k > 0; k--) {
+                    environmentVariables.add(new EnvironmentVariable(readString(in), readString(in)));
+                }
+                containers.add(new Container(containerName, image, containerPorts, environmentVariables));
+            }
+            deployments.add(new KubernetesDeployment(name, replicas, labels, containers));
+        }
+
+        int numberOfServices = readVarInt(in);
+        Set<KubernetesService> services = new HashSet<>();
+        for (int i = 0; i < numberOfServices; i++) {
+            String name = readString(in);
+            Set<ServicePort> servicePorts = new HashSet<>();
+            for (int j = readVarInt(in); j > 0; j--) {
+                servicePorts.add(new ServicePort(readString(in), readVarInt(in), readString(in)));
+            }
+            Set<Selector> selectors = new HashSet<>();
+            for (int j = readVarInt(in); j > 0; j--) {
+                selectors.add(new Selector(readString(in), readString(in)));
+            }
+            services.add(new KubernetesService(name, servicePorts, selectors));
+        }
+        return new ParseResult(lineRanges, deployments, services);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        int zigZag = (value << 1) ^ (value >> 31);
+        while ((zigZag & ~0x7F) != 0) {
+            out.writeByte((zigZag & 0x7F) | 0x80);
+            zigZag >>>= 7;
+        }
+        out.writeByte(zigZag);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int zigZag = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigZag |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,72 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+/**
+ * Receives the events emitted by the {@link YamlEventReader} while it reads a YAML stream in a single forward pass.
+ * Line numbers start at 1, columns start at 0.
+ */
+public interface YamlEventHandler {
+
+    /**
+     * A new YAML document starts at the given line.
+     *
+     * @param lineNumber
+     */
+    void documentStart(int lineNumber);
+
+    /**
+     * The current YAML document ends with the given line.
+     *
+     * @param lineNumber
+     */
+    void documentEnd(int lineNumber);
+
+    /**
+     * A block mapping starts with its first key at the given line and column.
+     *
+     * @param lineNumber
+     * @param column
+     */
+    void mappingStart(int lineNumber, int column);
+
+    /**
+     * The innermost open block mapping ends.
+     */
+    void mappingEnd();
+
+    /**
+     * A block sequence starts with its first item at the given line and column.
+     *
+     * @param lineNumber
+     * @param column
+     */
+    void sequenceStart(int lineNumber, int column);
+
+    /**
+     * The innermost open block sequence ends.
+     */
+    void sequenceEnd();
+
+    /**
+     * A scalar was read. Inside a mapping, keys and values are reported alternately as scalars.
+     * Block scalars and flow collections are reported as one scalar spanning from lineNumber to endLineNumber.
+     * The value is only valid for the duration of the call, handlers that keep it have to call toString().
+     *
+     * @param value
+     * @param lineNumber
+     * @param column
+     * @param endLineNumber
+     */
+    void scalar(CharSequence value, int lineNumber, int column, int endLineNumber);
+
+    /**
+     * Whether the rest of the current document is of no interest.
+     * The reader then skips all lines up to the next document marker without reading them,
+     * but still reports the end of the document.
+     *
+     * @return true if the rest of the document is skipped.
+     */
+    default boolean isSkippingDocument() {
+        return false;
+    }
+
+}
@@ -0,0 +1,467 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass reader for the block-style YAML used in Kubernetes manifests.
+ * Lines are pushed one after another with {@link #readLine(CharSequence)}, the reader keeps only the indentation
+ * of the currently open mappings and sequences and reports the structure as events to a {@link YamlEventHandler}.
+ * Nothing is buffered except the content of multi-line block scalars and flow collections,
+ * which are reported as a single scalar.
+ */
+public class YamlEventReader {
+
+    private final YamlEventHandler handler;
+
+    private int lineNumber = 0;
+
+    private boolean documentOpen = false;
+
+    private int depth = 0;
+
+    private int[] indents = new int[16];
+
+    private boolean[] sequences = new boolean[16];
+
+    private boolean pendingValue = false;
+
+    private int pendingIndent;
+
+    private boolean pendingSequenceItem;
+
+    private int pendingLineNumber;
+
+    private int pendingColumn;
+
+    private boolean inBlockScalar = false;
+
+    private boolean foldedBlockScalar;
+
+    private int blockScalarOwnerIndent;
+
+    private int blockScalarContentIndent;
+
+    private boolean inFlowCollection = false;
+
+    private int flowDepth;
+
+    private int multiLineScalarStart;
+
+    private int multiLineScalarColumn;
+
+    private int multiLineScalarEnd;
+
+    private final StringBuilder multiLineScalarValue = new StringBuilder();
+
+
+    public YamlEventReader(YamlEventHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Creates a reader for input that does not start at the beginning of a file.
+     *
+     * @param handler
+     * @param firstLineNumber the number of the first line that is read.
+     */
+    public YamlEventReader(YamlEventHandler handler, int firstLineNumber) {
+        this.handler = handler;
+        this.lineNumber = firstLineNumber - 1;
+    }
+
+    public int getLineNumber() {
+        return this.lineNumber;
+    }
+
+    /**
+     * Reads the next physical line, without its line break.
+     *
+     * @param line
+     */
+    public void readLine(CharSequence line) {
+        lineNumber++;
+        if (isDocumentMarker(line)) {
+            if (documentOpen) {
+                endDocument(lineNumber - 1);
+            }
+            return;
+        }
+        if (!documentOpen) {
+            documentOpen = true;
+            handler.documentStart(lineNumber);
+        } else if (handler.isSkippingDocument()) {
+            return;
+        }
+        if (inFlowCollection) {
+            continueFlowCollection(line, 0);
+            return;
+        }
+        int indent = indentOf(line);
+        boolean blank = indent == line.length() || line.charAt(indent) == '#';
+        if (inBlockScalar) {
+            if (indent == line.length() || indent > blockScalarOwnerIndent) {
+                continueBlockScalar(line, indent);
+                return;
+            }
+            finishBlockScalar();
+        }
+        if (!blank) {
+            readContent(line, indent);
+        }
+    }
+
+    /**
+     * Signals the end of the input and closes the last document.
+     */
+    public void finish() {
+        if (documentOpen) {
+            endDocument(lineNumber);
+        }
+    }
+
+    private void endDocument(int lastLineNumber) {
+        if (inBlockScalar) {
+            finishBlockScalar();
+        }
+        if (inFlowCollection) {
+            finishFlowCollection();
+        }
+        if (pendingValue) {
+            emitNullValue();
+        }
+        while (depth > 0) {
+            pop();
+        }
+        documentOpen = false;
+        handler.documentEnd(lastLineNumber);
+    }
+
+    private void readContent(CharSequence line, int indent) {
+        boolean sequenceItem = isSequenceItem(line, indent);
+        if (!closeNodesBefore(indent, sequenceItem)) {
+            return;
+        }
+        int position = indent;
+        while (sequenceItem) {
+            int itemIndent = position;
+            position = skipSpaces(line, position + 1);
+            if (position == line.length() || line.charAt(position) == '#') {
+                expectValue(itemIndent, true, position);
+                return;
+            }
+            sequenceItem = isSequenceItem(line, position);
+            if (sequenceItem) {
+                push(position, true);
+            } else if (findKeySeparator(line, position) >= 0) {
+                push(position, false);
+            } else {
+                readValue(line, position, itemIndent, true);
+                return;
+            }
+        }
+        readEntry(line, position);
+    }
+
+    /**
+     * Closes all nodes that end before a line with the given indentation.
+     * Opens a nested node if the line is the value of a preceding key or sequence item.
+     *
+     * @param indent
+     * @param sequenceItem
+     * @return false if the line does not fit into the current structure and has to be ignored.
+     */
+    private boolean closeNodesBefore(int indent, boolean sequenceItem) {
+        if (pendingValue) {
+            if (indent > pendingIndent || (indent == pendingIndent && sequenceItem && !pendingSequenceItem)) {
+                pendingValue = false;
+                push(indent, sequenceItem);
+                return true;
+            }
+            emitNullValue();
+        }
+        while (depth > 0 && (indents[depth - 1] > indent
+            || (indents[depth - 1] == indent && sequences[depth - 1] && !sequenceItem))) {
+            pop();
+        }
+        if (depth == 0) {
+            push(indent, sequenceItem);
+            return true;
+        }
+        return indents[depth - 1] == indent && sequences[depth - 1] == sequenceItem;
+    }
+
+    private void readEntry(CharSequence line, int position) {
+        int separator = findKeySeparator(line, position);
+        if (separator < 0) {
+            return;
+        }
+        int keyStart = position;
+        int keyEnd = trimEnd(line, keyStart, separator);
+        char first = line.charAt(keyStart);
+        if ((first == '"' || first == '\'') && keyEnd - keyStart >= 2 && line.charAt(keyEnd - 1) == first) {
+            keyStart++;
+            keyEnd--;
+        }
+        handler.scalar(line.subSequence(keyStart, keyEnd), lineNumber, position, lineNumber);
+        int valueStart = skipSpaces(line, separator + 1);
+        readValue(line, valueStart, position, false);
+    }
+
+    private void readValue(CharSequence line, int position, int ownerIndent, boolean sequenceItem) {
+        position = skipProperties(line, position);
+        if (position == line.length() || line.charAt(position) == '#') {
+            expectValue(ownerIndent, sequenceItem, position);
+            return;
+        }
+        char first = line.charAt(position);
+        if (first == '|' || first == '>') {
+            inBlockScalar = true;
+            foldedBlockScalar = first == '>';
+            blockScalarOwnerIndent = ownerIndent;
+            blockScalarContentIndent = -1;
+            startMultiLineScalar(position);
+        } else if (first == '{' || first == '[') {
+            startMultiLineScalar(position);
+            inFlowCollection = true;
+            flowDepth = 0;
+            continueFlowCollection(line, position);
+        } else if (first == '"' || first == '\'') {
+            handler.scalar(unquote(line, position), lineNumber, position, lineNumber);
+        } else {
+            int end = findCommentStart(line, position);
+            handler.scalar(line.subSequence(position, trimEnd(line, position, end)), lineNumber, position, lineNumber);
+        }
+    }
+
+    private void expectValue(int ownerIndent, boolean sequenceItem, int column) {
+        pendingValue = true;
+        pendingIndent = ownerIndent;
+        pendingSequenceItem = sequenceItem;
+        pendingLineNumber = lineNumber;
+        pendingColumn = column;
+    }
+
+    private void emitNullValue() {
+        pendingValue = false;
+        handler.scalar("", pendingLineNumber, pendingColumn, pendingLineNumber);
+    }
+
+    private void startMultiLineScalar(int column) {
+        multiLineScalarStart = lineNumber;
+        multiLineScalarColumn = column;
+        multiLineScalarEnd = lineNumber;
+        multiLineScalarValue.setLength(0);
+    }
+
+    private void continueBlockScalar(CharSequence line, int indent) {
+        if (indent == line.length()) {
+            if (blockScalarContentIndent >= 0) {
+                multiLineScalarValue.append('\n');
+            }
+            return;
+        }
+        if (blockScalarContentIndent < 0) {
+            blockScalarContentIndent = indent;
+        } else {
+            multiLineScalarValue.append(foldedBlockScalar ? ' ' : '\n');
+        }
+        multiLineScalarValue.append(line.subSequence(Math.min(blockScalarContentIndent, indent), line.length()).toString());
+        multiLineScalarEnd = lineNumber;
+    }
+
+    private void finishBlockScalar() {
+        inBlockScalar = false;
+        int length = multiLineScalarValue.length();
+        while (length > 0 && multiLineScalarValue.charAt(length - 1) == '\n') {
+            length--;
+        }
+        multiLineScalarValue.setLength(length);
+        handler.scalar(multiLineScalarValue, multiLineScalarStart, multiLineScalarColumn, multiLineScalarEnd);
+    }
+
+    private void continueFlowCollection(CharSequence line, int position) {
+        char quote = 0;
+        int end = line.length();
+        for (int i = position; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '{' || c == '[') {
+                flowDepth++;
+            } else if (c == '}' || c == ']') {
+                flowDepth--;
+                if (flowDepth == 0) {
+                    end = i + 1;
+                    break;
+                }
+            }
+        }
+        if (multiLineScalarValue.length() > 0) {
+            multiLineScalarValue.append(' ');
+        }
+        multiLineScalarValue.append(line.subSequence(position, end).toString());
+        multiLineScalarEnd = lineNumber;
+        if (flowDepth == 0) {
+            finishFlowCollection();
+        }
+    }
+
+    private void finishFlowCollection() {
+        inFlowCollection = false;
+        handler.scalar(multiLineScalarValue, multiLineScalarStart, multiLineScalarColumn, multiLineScalarEnd);
+    }
+
+    private void push(int indent, boolean sequence) {
+        if (depth == indents.length) {
+            indents = Arrays.copyOf(indents, depth * 2);
+            sequences = Arrays.copyOf(sequences, depth * 2);
+        }
+        indents[depth] = indent;
+        sequences[depth] = sequence;
+        depth++;
+        if (sequence) {
+            handler.sequenceStart(lineNumber, indent);
+        } else {
+            handler.mappingStart(lineNumber, indent);
+        }
+    }
+
+    private void pop() {
+        depth--;
+        if (sequences[depth]) {
+            handler.sequenceEnd();
+        } else {
+            handler.mappingEnd();
+        }
+    }
+
+    private static boolean isDocumentMarker(CharSequence line) {
+        if (line.length() < 3) {
+            return false;
+        }
+        char c = line.charAt(0);
+        if ((c != '-' && c != '.') || line.charAt(1) != c || line.charAt(2) != c) {
+            return false;
+        }
+        int next = skipSpaces(line, 3);
+        return next == line.length() || (next > 3 && line.charAt(next) == '#');
+    }
+
+    private static boolean isSequenceItem(CharSequence line, int position) {
+        return line.charAt(position) == '-' && (position + 1 == line.length() || line.charAt(position + 1) == ' ');
+    }
+
+    /**
+     * Finds the colon that separates a key from its value, ignoring colons in quotes and URLs.
+     *
+     * @param line
+     * @param position
+     * @return the index of the separator or -1 if the line contains no key.
+     */
+    private static int findKeySeparator(CharSequence line, int position) {
+        char first = line.charAt(position);
+        if (first == '"' || first == '\'') {
+            for (int i = position + 1; i < line.length(); i++) {
+                if (line.charAt(i) == first) {
+                    int next = skipSpaces(line, i + 1);
+                    return next < line.length() && isSeparatorAt(line, next) ? next : -1;
+                }
+            }
+            return -1;
+        }
+        if (first == '{' || first == '[' || first == '|' || first == '>') {
+            return -1;
+        }
+        for (int i = position; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ':' && isSeparatorAt(line, i)) {
+                return i;
+            } else if (c == '#' && i > position && line.charAt(i - 1) == ' ') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSeparatorAt(CharSequence line, int i) {
+        return line.charAt(i) == ':' && (i + 1 == line.length() || line.charAt(i + 1) == ' ');
+    }
+
+    private static int findCommentStart(CharSequence line, int position) {
+        for (int i = position + 1; i < line.length(); i++) {
+            if (line.charAt(i) == '#' && line.charAt(i - 1) == ' ') {
+                return i;
+            }
+        }
+        return line.length();
+    }
+
+    /**
+     * Skips anchors and tags in front of a value.
+     */
+    private static int skipProperties(CharSequence line, int position) {
+        while (position < line.length() && (line.charAt(position) == '&' || line.charAt(position) == '!')) {
+            while (position < line.length() && line.charAt(position) != ' ') {
+                position++;
+            }
+            position = skipSpaces(line, position);
+        }
+        return position;
+    }
+
+    private static CharSequence unquote(CharSequence line, int position) {
+        char quote = line.charAt(position);
+        StringBuilder unescaped = null;
+        int start = position + 1;
+        int segmentStart = start;
+        for (int i = start; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote == '"' && c == '\\' && i + 1 < line.length()) {
+                unescaped = appendDecoded(unescaped, line, segmentStart, i);
+                char escaped = line.charAt(++i);
+                unescaped.append(escaped == 'n' ? '\n' : escaped == 't' ? '\t' : escaped);
+                segmentStart = i + 1;
+            } else if (c == quote && quote == '\'' && i + 1 < line.length() && line.charAt(i + 1) == '\'') {
+                unescaped = appendDecoded(unescaped, line, segmentStart, i);
+                unescaped.append(quote);
+                i++;
+                segmentStart = i + 1;
+            } else if (c == quote) {
+                return unescaped == null ? line.subSequence(start, i) : appendDecoded(unescaped, line, segmentStart, i);
+            }
+        }
+        return unescaped == null ? line.subSequence(start, line.length()) : appendDecoded(unescaped, line, segmentStart, line.length());
+    }
+
+    /**
+     * Appends a range of the line to the unescaped value.
+     * The range is decoded as a whole, as the characters of a {@link ByteSequence} are single UTF-8 bytes.
+     */
+    private static StringBuilder appendDecoded(StringBuilder unescaped, CharSequence line, int start, int end) {
+        StringBuilder builder = unescaped == null ? new StringBuilder() : unescaped;
+        return builder.append(line.subSequence(start, end).toString());
+    }
+
+    private static int indentOf(CharSequence line) {
+        return skipSpaces(line, 0);
+    }
+
+    private static int skipSpaces(CharSequence line, int position) {
+        while (position < line.length() && line.charAt(position) == ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private static int trimEnd(CharSequence line, int start, int end) {
+        while (end > start && line.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+
+}
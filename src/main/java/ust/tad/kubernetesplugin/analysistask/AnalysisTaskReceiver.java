@@ -1,5 +1,7 @@
 package ust.tad.kubernetesplugin.analysistask;
 
+import java.util.UUID;
+
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -52,7 +54,9 @@ public class AnalysisTaskReceiver {
     /**
      * Receives a message of type AnalysisTaskStartRequest.
      * Transforms the message into an entity of type AnalysisTaskStartRequest.
-     * Starts the analysis process of the plugin.
+     * Starts the analysis process of the plugin without waiting for it to finish.
+     * The analysis sends its own failure response, if it still terminates with an error, e.g.,
+     * because sending that response failed, the error is logged and a failure response is sent again.
      * 
      * @param message
      */
@@ -64,11 +68,16 @@ public class AnalysisTaskReceiver {
             AnalysisTaskStartRequest.class);
 
         LOG.info(String.format("received AnalysisTaskStartRequest: %s", analysisTaskStartRequest.toString()));
+        UUID taskId = analysisTaskStartRequest.getTaskId();
         analysisService.startAnalysis(
-            analysisTaskStartRequest.getTaskId(), 
+            taskId, 
             analysisTaskStartRequest.getTransformationProcessId(), 
             analysisTaskStartRequest.getCommands(), 
-            analysisTaskStartRequest.getLocations());
+            analysisTaskStartRequest.getLocations())
+            .subscribe(null, e -> {
+                LOG.error("Analysis of task " + taskId + " terminated with an error", e);
+                analysisTaskResponseSender.sendFailureResponse(taskId, e.getClass()+": "+e.getMessage());
+            });
     }
 
     /**
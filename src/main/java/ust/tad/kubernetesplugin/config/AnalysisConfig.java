@@ -0,0 +1,52 @@
+package ust.tad.kubernetesplugin.config;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class AnalysisConfig {
+
+    @Value("${analysis.parser.parallelism}")
+    private int parserParallelism;
+
+    @Value("${analysis.transformation.parallelism}")
+    private int transformationParallelism;
+
+    @Value("${analysis.scheduler.thread-cap}")
+    private int analysisSchedulerThreadCap;
+
+    @Value("${analysis.scheduler.queued-task-cap}")
+    private int analysisSchedulerQueuedTaskCap;
+
+    /**
+     * Bounded pool on which the files of a directory location are parsed in parallel.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool parserPool() {
+        return new ForkJoinPool(parserParallelism);
+    }
+
+    /**
+     * Bounded scheduler on which the CPU-bound and blocking steps of analysis tasks run,
+     * so that the threads of the message listener and the web client are never blocked.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler analysisScheduler() {
+        return Schedulers.newBoundedElastic(analysisSchedulerThreadCap, analysisSchedulerQueuedTaskCap, "analysis");
+    }
+
+    /**
+     * Bounded pool on which the components of a transformation are created in parallel.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool transformationPool() {
+        return new ForkJoinPool(transformationParallelism);
+    }
+
+}
@@ -3,9 +3,13 @@ package ust.tad.kubernetesplugin.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+
 @Configuration
 public class WebClientConfig {
 
@@ -20,16 +24,36 @@ public class WebClientConfig {
 	@Value("${models-service.url}")
     private String modelsServiceURL;
 
+	@Value("${models-service.compression.enabled}")
+	private boolean compressionEnabled;
+
+	@Value("${models-service.transfer-scheduler.thread-cap}")
+	private int transferSchedulerThreadCap;
+
+	@Value("${models-service.transfer-scheduler.queued-task-cap}")
+	private int transferSchedulerQueuedTaskCap;
+
+	/**
+	 * If compression is enabled, gzip encoded responses are accepted and decompressed by the connector.
+	 * Request bodies are compressed by the ModelsService.
+	 * The default in-memory limit of the codecs is kept on purpose, the bodies are streamed by the JsonStreamCodec
+	 * and a buffered decode of a large model is meant to fail fast instead of holding the whole body in memory.
+	 */
 	@Bean
 	public WebClient modelsServiceApiClient() {
 		return WebClient.builder()
 			.baseUrl(modelsServiceURL)
-			.exchangeStrategies(ExchangeStrategies.builder()
-			.codecs(configurer -> configurer
-				.defaultCodecs()
-				.maxInMemorySize(16 * 1024 * 1024))
-			.build())
+			.clientConnector(new ReactorClientHttpConnector(HttpClient.create().compress(compressionEnabled)))
 			.build();
 	}
-    
+
+	/**
+	 * Bounded scheduler on which the bodies of the models service are decoded and encoded while they are transferred,
+	 * so that slow transfers never block the threads of the analysis scheduler.
+	 */
+	@Bean(destroyMethod = "dispose")
+	public Scheduler modelsServiceTransferScheduler() {
+		return Schedulers.newBoundedElastic(transferSchedulerThreadCap, transferSchedulerQueuedTaskCap, "models-service-transfer");
+	}
+
 }
@@ -0,0 +1,62 @@
+package ust.tad.kubernetesplugin.models;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that counts the bytes written to the underlying stream.
+ * If a limit is set, writing fails with a {@link LimitExceededException} as soon as more bytes than the limit are written,
+ * which allows to check whether a value exceeds a size without serializing it completely.
+ */
+class CountingOutputStream extends FilterOutputStream {
+
+    private final long limit;
+
+    private long count;
+
+
+    CountingOutputStream(OutputStream out) {
+        this(out, Long.MAX_VALUE);
+    }
+
+    CountingOutputStream(OutputStream out, long limit) {
+        super(out);
+        this.limit = limit;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        count(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        count(length);
+        out.write(bytes, offset, length);
+    }
+
+    private void count(int length) throws LimitExceededException {
+        count += length;
+        if (count > limit) {
+            throw new LimitExceededException(limit);
+        }
+    }
+
+    /**
+     * Signals that more bytes than the limit of the stream were written.
+     */
+    static class LimitExceededException extends IOException {
+
+        LimitExceededException(long limit) {
+            super("More than " + limit + " bytes written");
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package ust.tad.kubernetesplugin.models;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Blocking input stream over a publisher of data buffers.
+ * At most {@code prefetch} buffers are requested ahead of the reader, so the memory used
+ * is bounded by a few network chunks regardless of the length of the stream.
+ * Each buffer is released as soon as it has been read.
+ * The stream is read and closed by a single reader thread, while {@link #cancel()} may be called from any thread.
+ */
+class DataBufferInputStream extends InputStream implements Subscriber<DataBuffer> {
+
+    private static final Object COMPLETE = new Object();
+
+    private final BlockingQueue<Object> signals;
+
+    private final int prefetch;
+
+    private volatile Subscription subscription;
+
+    private DataBuffer current;
+
+    private boolean done;
+
+    private volatile boolean cancelled;
+
+
+    DataBufferInputStream(int prefetch) {
+        this.prefetch = prefetch;
+        this.signals = new ArrayBlockingQueue<>(prefetch + 1);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+        } else {
+            subscription.request(prefetch);
+        }
+    }
+
+    @Override
+    public void onNext(DataBuffer dataBuffer) {
+        if (cancelled || !signals.offer(dataBuffer)) {
+            DataBufferUtils.release(dataBuffer);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        signals.offer(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        signals.offer(COMPLETE);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextBuffer()) {
+            return -1;
+        }
+        return current.read() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextBuffer()) {
+            return -1;
+        }
+        int count = Math.min(length, current.readableByteCount());
+        current.read(bytes, offset, count);
+        return count;
+    }
+
+    /**
+     * Cancels the subscription and wakes up the reader, which then fails with an IOException.
+     */
+    public void cancel() {
+        cancelled = true;
+        Subscription subscription = this.subscription;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        signals.offer(COMPLETE);
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        release(current);
+        current = null;
+        Object signal;
+        while ((signal = signals.poll()) != null) {
+            release(signal);
+        }
+    }
+
+    /**
+     * Makes a buffer with readable bytes the current buffer, waiting for the next buffer if necessary.
+     *
+     * @return false if the end of the stream is reached.
+     * @throws IOException if the publisher failed or the stream was cancelled or closed.
+     */
+    private boolean nextBuffer() throws IOException {
+        while (current == null || current.readableByteCount() == 0) {
+            if (cancelled) {
+                throw new IOException("Stream cancelled");
+            }
+            if (done) {
+                return false;
+            }
+            release(current);
+            current = null;
+            Object signal;
+            try {
+                signal = signals.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for data");
+            }
+            if (signal == COMPLETE) {
+                done = true;
+            } else if (signal instanceof Throwable) {
+                done = true;
+                throw new IOException((Throwable) signal);
+            } else {
+                current = (DataBuffer) signal;
+                subscription.request(1);
+            }
+        }
+        return true;
+    }
+
+    private static void release(Object signal) {
+        if (signal instanceof DataBuffer) {
+            DataBufferUtils.release((DataBuffer) signal);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package ust.tad.kubernetesplugin.models;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Blocking output stream that emits the written bytes as data buffers of a fixed size to a sink.
+ * The writer waits until the subscriber of the sink has requested the next buffer, so at most one chunk
+ * is held in memory regardless of the length of the stream.
+ * Closing the stream emits the remaining bytes, completing or failing the sink is left to the writer,
+ * as the stream is also closed when writing fails.
+ */
+class DataBufferOutputStream extends OutputStream {
+
+    private final FluxSink<DataBuffer> sink;
+
+    private final DataBufferFactory dataBufferFactory;
+
+    private final byte[] chunk;
+
+    private int position;
+
+    private long demand;
+
+    private boolean cancelled;
+
+    private boolean closed;
+
+
+    DataBufferOutputStream(FluxSink<DataBuffer> sink, DataBufferFactory dataBufferFactory, int chunkSize) {
+        this.sink = sink;
+        this.dataBufferFactory = dataBufferFactory;
+        this.chunk = new byte[chunkSize];
+        sink.onRequest(this::request);
+        sink.onCancel(this::cancel);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position == chunk.length) {
+            emitChunk();
+        }
+        chunk[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (position == chunk.length) {
+                emitChunk();
+            }
+            int count = Math.min(length, chunk.length - position);
+            System.arraycopy(bytes, offset, chunk, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (position > 0) {
+            emitChunk();
+        }
+    }
+
+    private synchronized void request(long n) {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        notifyAll();
+    }
+
+    private synchronized void cancel() {
+        cancelled = true;
+        notifyAll();
+    }
+
+    private void emitChunk() throws IOException {
+        synchronized (this) {
+            while (demand == 0 && !cancelled) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for demand");
+                }
+            }
+            if (cancelled) {
+                throw new IOException("Subscriber cancelled");
+            }
+            demand--;
+        }
+        sink.next(dataBufferFactory.wrap(Arrays.copyOf(chunk, position)));
+        position = 0;
+    }
+
+}
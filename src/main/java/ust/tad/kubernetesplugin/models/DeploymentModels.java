@@ -0,0 +1,77 @@
+package ust.tad.kubernetesplugin.models;
+
+import java.util.Objects;
+
+import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
+import ust.tad.kubernetesplugin.models.tsdm.TechnologySpecificDeploymentModel;
+
+/**
+ * The technology-specific and technology-agnostic deployment models of an analysis,
+ * sent together to the batch update endpoint of the models service.
+ */
+public class DeploymentModels {
+
+    private TechnologySpecificDeploymentModel technologySpecificDeploymentModel;
+
+    private TechnologyAgnosticDeploymentModel technologyAgnosticDeploymentModel;
+
+
+    public DeploymentModels() {
+    }
+
+    public DeploymentModels(TechnologySpecificDeploymentModel technologySpecificDeploymentModel, TechnologyAgnosticDeploymentModel technologyAgnosticDeploymentModel) {
+        this.technologySpecificDeploymentModel = technologySpecificDeploymentModel;
+        this.technologyAgnosticDeploymentModel = technologyAgnosticDeploymentModel;
+    }
+
+    public TechnologySpecificDeploymentModel getTechnologySpecificDeploymentModel() {
+        return this.technologySpecificDeploymentModel;
+    }
+
+    public void setTechnologySpecificDeploymentModel(TechnologySpecificDeploymentModel technologySpecificDeploymentModel) {
+        this.technologySpecificDeploymentModel = technologySpecificDeploymentModel;
+    }
+
+    public TechnologyAgnosticDeploymentModel getTechnologyAgnosticDeploymentModel() {
+        return this.technologyAgnosticDeploymentModel;
+    }
+
+    public void setTechnologyAgnosticDeploymentModel(TechnologyAgnosticDeploymentModel technologyAgnosticDeploymentModel) {
+        this.technologyAgnosticDeploymentModel = technologyAgnosticDeploymentModel;
+    }
+
+    public DeploymentModels technologySpecificDeploymentModel(TechnologySpecificDeploymentModel technologySpecificDeploymentModel) {
+        setTechnologySpecificDeploymentModel(technologySpecificDeploymentModel);
+        return this;
+    }
+
+    public DeploymentModels technologyAgnosticDeploymentModel(TechnologyAgnosticDeploymentModel technologyAgnosticDeploymentModel) {
+        setTechnologyAgnosticDeploymentModel(technologyAgnosticDeploymentModel);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof DeploymentModels)) {
+            return false;
+        }
+        DeploymentModels deploymentModels = (DeploymentModels) o;
+        return Objects.equals(technologySpecificDeploymentModel, deploymentModels.technologySpecificDeploymentModel) && Objects.equals(technologyAgnosticDeploymentModel, deploymentModels.technologyAgnosticDeploymentModel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(technologySpecificDeploymentModel, technologyAgnosticDeploymentModel);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+            " technologySpecificDeploymentModel='" + getTechnologySpecificDeploymentModel() + "'" +
+            ", technologyAgnosticDeploymentModel='" + getTechnologyAgnosticDeploymentModel() + "'" +
+            "}";
+    }
+
+}
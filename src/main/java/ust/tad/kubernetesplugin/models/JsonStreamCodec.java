@@ -0,0 +1,139 @@
+package ust.tad.kubernetesplugin.models;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Decodes and encodes JSON bodies while they are transferred, so a body is never buffered as a whole.
+ * Jackson reads from and writes to blocking streams over the data buffers of the body,
+ * which wait for the network while the body is transferred.
+ * Therefore, they run on a scheduler dedicated to transfers and never block the threads of the analysis scheduler.
+ */
+class JsonStreamCodec {
+
+    private final ObjectMapper objectMapper;
+
+    private final Scheduler transferScheduler;
+
+    private final int chunkSize;
+
+    private final int prefetch;
+
+    private final Counter uncompressedBytes;
+
+    private final Counter compressedBytes;
+
+
+    /**
+     * Creates a codec and registers the counters of the bytes of compressed bodies.
+     *
+     * @param objectMapper
+     * @param transferScheduler the scheduler on which the blocking streams are read and written.
+     * @param meterRegistry
+     * @param chunkSize the size of the data buffers of encoded bodies.
+     * @param prefetch the number of data buffers of decoded bodies that are requested ahead of the parser.
+     */
+    JsonStreamCodec(ObjectMapper objectMapper, Scheduler transferScheduler, MeterRegistry meterRegistry, int chunkSize, int prefetch) {
+        this.objectMapper = objectMapper;
+        this.transferScheduler = transferScheduler;
+        this.chunkSize = chunkSize;
+        this.prefetch = prefetch;
+        this.uncompressedBytes = meterRegistry.counter("models-service.compression.bytes", "stage", "uncompressed");
+        this.compressedBytes = meterRegistry.counter("models-service.compression.bytes", "stage", "compressed");
+    }
+
+    /**
+     * Decode a JSON body while it is received.
+     * Only a few buffers are requested ahead of the parser, so the memory used does not depend on the size of the body.
+     * An empty body results in an empty Mono.
+     *
+     * @param body
+     * @param type
+     * @return a Mono emitting the decoded value.
+     */
+    <T> Mono<T> decode(Flux<DataBuffer> body, Class<T> type) {
+        return Mono.defer(() -> {
+            DataBufferInputStream inputStream = new DataBufferInputStream(prefetch);
+            return Mono.fromCallable(() -> {
+                    try (PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream)) {
+                        body.subscribe(inputStream);
+                        int firstByte = pushbackInputStream.read();
+                        if (firstByte < 0) {
+                            return null;
+                        }
+                        pushbackInputStream.unread(firstByte);
+                        return objectMapper.readValue(pushbackInputStream, type);
+                    }
+                })
+                .subscribeOn(transferScheduler)
+                .doOnCancel(inputStream::cancel);
+        });
+    }
+
+    /**
+     * Encode a value as JSON while it is sent.
+     * The JSON is emitted in chunks as the request body demands them, so at most one chunk is held in memory.
+     * If the JSON is compressed, the bytes before and after compression are recorded.
+     *
+     * @param value
+     * @param gzip
+     * @return a Flux emitting the encoded JSON.
+     */
+    Flux<DataBuffer> encode(Object value, boolean gzip) {
+        return Flux.create(sink -> {
+            DataBufferOutputStream outputStream = new DataBufferOutputStream(sink, DefaultDataBufferFactory.sharedInstance, chunkSize);
+            transferScheduler.schedule(() -> {
+                try {
+                    if (gzip) {
+                        CountingOutputStream compressedOutputStream = new CountingOutputStream(outputStream);
+                        CountingOutputStream uncompressedOutputStream = new CountingOutputStream(new GZIPOutputStream(compressedOutputStream, chunkSize));
+                        objectMapper.writeValue(uncompressedOutputStream, value);
+                        uncompressedOutputStream.close();
+                        uncompressedBytes.increment(uncompressedOutputStream.getCount());
+                        compressedBytes.increment(compressedOutputStream.getCount());
+                    } else {
+                        objectMapper.writeValue(outputStream, value);
+                        outputStream.close();
+                    }
+                    sink.complete();
+                } catch (IOException | RuntimeException e) {
+                    sink.error(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Check whether the JSON of a value is larger than the given number of bytes.
+     * Serialization stops as soon as the size is exceeded, so large values are not serialized completely.
+     *
+     * @param value
+     * @param maxBytes
+     * @return a Mono emitting true if the JSON is larger than maxBytes.
+     */
+    Mono<Boolean> exceedsSize(Object value, long maxBytes) {
+        return Mono.fromCallable(() -> {
+                try {
+                    objectMapper.writeValue(new CountingOutputStream(OutputStream.nullOutputStream(), maxBytes), value);
+                    return false;
+                } catch (CountingOutputStream.LimitExceededException e) {
+                    return true;
+                }
+            })
+            .subscribeOn(transferScheduler);
+    }
+
+}
@@ -2,15 +2,24 @@ package ust.tad.kubernetesplugin.models;
 
 import java.util.UUID;
 
+import javax.annotation.PostConstruct;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
 import ust.tad.kubernetesplugin.models.tsdm.TechnologySpecificDeploymentModel;
 
@@ -22,77 +31,153 @@ public class ModelsService {
     
     @Autowired
     private WebClient modelsServiceApiClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Scheduler modelsServiceTransferScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     @Value("${models-service.url}")
     private String modelsServiceURL;
 
+    @Value("${models-service.batch-update.enabled}")
+    private boolean batchUpdateEnabled;
+
+    @Value("${models-service.batch-update.path}")
+    private String batchUpdatePath;
+
+    @Value("${models-service.streaming.chunk-size}")
+    private int streamingChunkSize;
+
+    @Value("${models-service.streaming.prefetch}")
+    private int streamingPrefetch;
+
+    @Value("${models-service.compression.enabled}")
+    private boolean compressionEnabled;
+
+    @Value("${models-service.compression.threshold-bytes}")
+    private long compressionThresholdBytes;
+
+    private JsonStreamCodec jsonStreamCodec;
+
+    @PostConstruct
+    private void init() {
+        this.jsonStreamCodec = new JsonStreamCodec(objectMapper, modelsServiceTransferScheduler, meterRegistry, streamingChunkSize, streamingPrefetch);
+    }
+
     /**
      * Retrieve a technology-specific deployment model from the model service.
+     * The response body is decoded while it is received, so it is never buffered as a whole.
+     * The request is sent when the returned Mono is subscribed to.
      * 
      * @param transformationProcessId
-     * @return
+     * @return a Mono emitting the technology-specific deployment model.
      */
-    public TechnologySpecificDeploymentModel getTechnologySpecificDeploymentModel(UUID transformationProcessId) {
-        LOG.info("Requesting technology-specific deployment model");
+    public Mono<TechnologySpecificDeploymentModel> getTechnologySpecificDeploymentModel(UUID transformationProcessId) {
         return modelsServiceApiClient.get()
             .uri(uriBuilder -> uriBuilder
                 .path("/technology-specific/"+transformationProcessId)
                 .build())
            .accept(MediaType.APPLICATION_JSON)
            .retrieve()
-           .bodyToMono(TechnologySpecificDeploymentModel.class)
-           .block();
+           .bodyToFlux(DataBuffer.class)
+           .as(body -> jsonStreamCodec.decode(body, TechnologySpecificDeploymentModel.class))
+           .doOnSubscribe(subscription -> LOG.info("Requesting technology-specific deployment model"));
     }
 
     /**
      * Update a technology-specific deployment model by sending it to the update endpoint of the models service.
+     * The model is encoded while it is sent and the echoed model in the response body is discarded without decoding it.
+     * The request is sent when the returned Mono is subscribed to.
      * 
      * @param annotatedDeploymentModel
+     * @return a Mono completing when the models service has accepted the update.
      */
-    public void updateTechnologySpecificDeploymentModel(TechnologySpecificDeploymentModel technologySpecificDeploymentModel) {
-        LOG.info("Updating technology-specific deployment model");
-        modelsServiceApiClient.post()
-            .uri("/technology-specific")
-            .contentType(MediaType.APPLICATION_JSON)
-            .accept(MediaType.APPLICATION_JSON)
-            .body(BodyInserters.fromValue(technologySpecificDeploymentModel))
-            .retrieve()
-            .bodyToMono(TechnologySpecificDeploymentModel.class)
-            .block();
+    public Mono<Void> updateTechnologySpecificDeploymentModel(TechnologySpecificDeploymentModel technologySpecificDeploymentModel) {
+        return post("/technology-specific", technologySpecificDeploymentModel)
+            .doOnSubscribe(subscription -> LOG.info("Updating technology-specific deployment model"));
     }
 
     /**
      * Retrieve a technology-agnostic deployment model from the model service.
+     * The response body is decoded while it is received, so it is never buffered as a whole.
+     * The request is sent when the returned Mono is subscribed to.
      * 
      * @param transformationProcessId
-     * @return
+     * @return a Mono emitting the technology-agnostic deployment model.
      */
-    public TechnologyAgnosticDeploymentModel getTechnologyAgnosticDeploymentModel(UUID transformationProcessId) {
-        LOG.info("Requesting technology-agnostic deployment model");
+    public Mono<TechnologyAgnosticDeploymentModel> getTechnologyAgnosticDeploymentModel(UUID transformationProcessId) {
          return modelsServiceApiClient.get()
             .uri(uriBuilder -> uriBuilder
                 .path("/technology-agnostic/"+transformationProcessId)
                 .build())
             .accept(MediaType.APPLICATION_JSON)
             .retrieve()
-            .bodyToMono(TechnologyAgnosticDeploymentModel.class)
-            .block();
+            .bodyToFlux(DataBuffer.class)
+            .as(body -> jsonStreamCodec.decode(body, TechnologyAgnosticDeploymentModel.class))
+            .doOnSubscribe(subscription -> LOG.info("Requesting technology-agnostic deployment model"));
     }
 
     /**
      * Update a technology-agnostic deployment model by sending it to the update endpoint of the models service.
+     * The model is encoded while it is sent and the echoed model in the response body is discarded without decoding it.
+     * The request is sent when the returned Mono is subscribed to.
      * 
      * @param technologyAgnosticDeploymentModel
+     * @return a Mono completing when the models service has accepted the update.
      */
-    public void updateTechnologyAgnosticDeploymentModel(TechnologyAgnosticDeploymentModel technologyAgnosticDeploymentModel) {
-        LOG.info("Updating technology-agnostic deployment model");
-        modelsServiceApiClient.post()
-            .uri("/technology-agnostic")
-            .contentType(MediaType.APPLICATION_JSON)
-            .accept(MediaType.APPLICATION_JSON)
-            .body(BodyInserters.fromValue(technologyAgnosticDeploymentModel))
-            .retrieve()
-            .bodyToMono(TechnologyAgnosticDeploymentModel.class)
-            .block();
+    public Mono<Void> updateTechnologyAgnosticDeploymentModel(TechnologyAgnosticDeploymentModel technologyAgnosticDeploymentModel) {
+        return post("/technology-agnostic", technologyAgnosticDeploymentModel)
+            .doOnSubscribe(subscription -> LOG.info("Updating technology-agnostic deployment model"));
+    }
+
+    /**
+     * Update both deployment models of an analysis.
+     * If batch updates are enabled, both models are sent in one request to the batch endpoint of the models service.
+     * Otherwise, the two update requests are sent concurrently.
+     * The request is sent when the returned Mono is subscribed to.
+     * 
+     * @param technologySpecificDeploymentModel
+     * @param technologyAgnosticDeploymentModel
+     * @return a Mono completing when the models service has accepted both updates.
+     */
+    public Mono<Void> updateDeploymentModels(TechnologySpecificDeploymentModel technologySpecificDeploymentModel, TechnologyAgnosticDeploymentModel technologyAgnosticDeploymentModel) {
+        if (!batchUpdateEnabled) {
+            return Mono.when(
+                updateTechnologySpecificDeploymentModel(technologySpecificDeploymentModel),
+                updateTechnologyAgnosticDeploymentModel(technologyAgnosticDeploymentModel));
+        }
+        return post(batchUpdatePath, new DeploymentModels(technologySpecificDeploymentModel, technologyAgnosticDeploymentModel))
+            .doOnSubscribe(subscription -> LOG.info("Updating technology-specific and technology-agnostic deployment models"));
+    }
+
+    /**
+     * Send a value as JSON to an endpoint of the models service, discarding the response body.
+     * If compression is enabled and the JSON is larger than the threshold, the body is sent gzip encoded.
+     * 
+     * @param uri
+     * @param value
+     * @return a Mono completing when the models service has accepted the request.
+     */
+    private Mono<Void> post(String uri, Object value) {
+        Mono<Boolean> compress = compressionEnabled ? jsonStreamCodec.exceedsSize(value, compressionThresholdBytes) : Mono.just(false);
+        return compress.flatMap(gzip -> {
+                WebClient.RequestBodySpec request = modelsServiceApiClient.post()
+                    .uri(uri)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON);
+                if (gzip) {
+                    request.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+                return request
+                    .body(BodyInserters.fromDataBuffers(jsonStreamCodec.encode(value, gzip)))
+                    .retrieve()
+                    .toBodilessEntity();
+            })
+            .then();
     }
 }
@@ -0,0 +1,89 @@
+package ust.tad.kubernetesplugin.models.tadm;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Hash index from the names of the elements of a list to their positions in the list.
+ * The index is rebuilt when it was invalidated or the list was replaced or changed its size,
+ * otherwise a miss means that no element has the name.
+ * A found element is read from the list and its name is checked again, so elements that were replaced
+ * or renamed in place are never returned. If the check fails, the index is rebuilt once and the lookup is repeated.
+ */
+class ListIndex<T> {
+
+    private final Function<T, String> nameFunction;
+
+    private List<T> indexedList;
+
+    private int indexedSize;
+
+    private Map<String, Integer> positionsByName = new HashMap<>();
+
+
+    /**
+     * @param nameFunction the function returning the name an element is indexed by.
+     */
+    ListIndex(Function<T, String> nameFunction) {
+        this.nameFunction = nameFunction;
+    }
+
+    /**
+     * Returns an element of the list with the given name.
+     *
+     * @param list
+     * @param name
+     * @return an Optional with the found element.
+     */
+    Optional<T> get(List<T> list, String name) {
+        if (indexedList != list || indexedSize != list.size()) {
+            rebuild(list);
+            return Optional.ofNullable(find(list, name));
+        }
+        if (!positionsByName.containsKey(name)) {
+            return Optional.empty();
+        }
+        T element = find(list, name);
+        if (element == null) {
+            rebuild(list);
+            element = find(list, name);
+        }
+        return Optional.ofNullable(element);
+    }
+
+    /**
+     * Marks the index as outdated, so it is rebuilt on the next lookup.
+     */
+    void invalidate() {
+        indexedList = null;
+    }
+
+    private T find(List<T> list, String name) {
+        Integer position = positionsByName.get(name);
+        if (position == null || position >= list.size()) {
+            return null;
+        }
+        T element = list.get(position);
+        if (element == null || !name.equals(nameFunction.apply(element))) {
+            return null;
+        }
+        return element;
+    }
+
+    private void rebuild(List<T> list) {
+        positionsByName = new HashMap<>();
+        for (int position = 0; position < list.size(); position++) {
+            T element = list.get(position);
+            String name = element == null ? null : nameFunction.apply(element);
+            if (name != null) {
+                positionsByName.putIfAbsent(name, position);
+            }
+        }
+        indexedList = list;
+        indexedSize = list.size();
+    }
+
+}
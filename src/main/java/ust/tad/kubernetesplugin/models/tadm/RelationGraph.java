@@ -0,0 +1,56 @@
+package ust.tad.kubernetesplugin.models.tadm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adjacency lists of the relations of a technology-agnostic deployment model.
+ * Relations are identified by the names of their source, target and type,
+ * so a relation is only added once, no matter how often the same analysis found it.
+ */
+class RelationGraph {
+
+    private final Map<List<String>, Relation> relationsByKey = new HashMap<>();
+
+    private final Map<String, List<Relation>> outgoingRelations = new HashMap<>();
+
+    private final Map<String, List<Relation>> incomingRelations = new HashMap<>();
+
+
+    /**
+     * Adds the relation to the graph if no relation with the same source, target and type exists yet.
+     *
+     * @param relation
+     * @return true if the relation was added.
+     */
+    boolean add(Relation relation) {
+        if (relationsByKey.putIfAbsent(createKey(relation), relation) != null) {
+            return false;
+        }
+        outgoingRelations.computeIfAbsent(getName(relation.getSource()), name -> new ArrayList<>()).add(relation);
+        incomingRelations.computeIfAbsent(getName(relation.getTarget()), name -> new ArrayList<>()).add(relation);
+        return true;
+    }
+
+    List<Relation> getOutgoingRelations(Component component) {
+        return Collections.unmodifiableList(outgoingRelations.getOrDefault(getName(component), Collections.emptyList()));
+    }
+
+    List<Relation> getIncomingRelations(Component component) {
+        return Collections.unmodifiableList(incomingRelations.getOrDefault(getName(component), Collections.emptyList()));
+    }
+
+    private static List<String> createKey(Relation relation) {
+        String typeName = relation.getType() == null ? null : relation.getType().getName();
+        return Arrays.asList(getName(relation.getSource()), getName(relation.getTarget()), typeName);
+    }
+
+    private static String getName(Component component) {
+        return component == null ? null : component.getName();
+    }
+
+}
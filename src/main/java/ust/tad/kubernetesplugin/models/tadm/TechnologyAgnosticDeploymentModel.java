@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 public class TechnologyAgnosticDeploymentModel {
@@ -22,6 +23,25 @@ public class TechnologyAgnosticDeploymentModel {
 
     private List<RelationType> relationTypes = new ArrayList<>();
 
+    /*
+     * Lookup indexes by name, which are invalidated by the setters and rebuilt when their list changed its size.
+     * The relation graph is rebuilt when the relations were replaced or changed their size.
+     */
+    private final ListIndex<Component> componentsByName = new ListIndex<>(Component::getName);
+
+    private final ListIndex<Component> componentsByTypeName = new ListIndex<>(component ->
+        component.getType() == null ? null : component.getType().getName());
+
+    private final ListIndex<ComponentType> componentTypesByName = new ListIndex<>(ComponentType::getName);
+
+    private final ListIndex<RelationType> relationTypesByName = new ListIndex<>(RelationType::getName);
+
+    private List<Relation> indexedRelations;
+
+    private int indexedRelationsSize;
+
+    private RelationGraph relationGraph;
+
 
     public TechnologyAgnosticDeploymentModel() {
     }
@@ -63,8 +83,10 @@ public class TechnologyAgnosticDeploymentModel {
         return this.components;
     }
 
-    public void setComponents(List<Component> components) {
+    public synchronized void setComponents(List<Component> components) {
         this.components = components;
+        componentsByName.invalidate();
+        componentsByTypeName.invalidate();
     }
 
     public List<Relation> getRelations() {
@@ -79,16 +101,18 @@ public class TechnologyAgnosticDeploymentModel {
         return this.componentTypes;
     }
 
-    public void setComponentTypes(List<ComponentType> componentTypes) {
+    public synchronized void setComponentTypes(List<ComponentType> componentTypes) {
         this.componentTypes = componentTypes;
+        componentTypesByName.invalidate();
     }
 
     public List<RelationType> getRelationTypes() {
         return this.relationTypes;
     }
 
-    public void setRelationTypes(List<RelationType> relationTypes) {
+    public synchronized void setRelationTypes(List<RelationType> relationTypes) {
         this.relationTypes = relationTypes;
+        relationTypesByName.invalidate();
     }
 
     public TechnologyAgnosticDeploymentModel id(UUID id) {
@@ -155,13 +179,117 @@ public class TechnologyAgnosticDeploymentModel {
             "}";
     }
 
+    /*
+     * Add new components to the existing ones.
+     */
+    public void addComponents(Collection<Component> newComponents) {
+        List<Component> components = this.getComponents();
+        components.addAll(newComponents);
+        this.setComponents(components);
+    }
+
+    /*
+     * Add new component types to the existing ones.
+     */
+    public void addComponentTypes(Collection<ComponentType> newComponentTypes) {
+        List<ComponentType> componentTypes = this.getComponentTypes();
+        componentTypes.addAll(newComponentTypes);
+        this.setComponentTypes(componentTypes);
+    }
+
+    /**
+     * Returns a component with the given name using a hash index over the components.
+     *
+     * @param name
+     * @return an Optional with the found component.
+     */
+    public synchronized Optional<Component> getComponentByName(String name) {
+        return componentsByName.get(components, name);
+    }
+
+    /**
+     * Returns a component of the given type using a hash index over the components.
+     * Component types are matched by their name, as the name identifies a type within a model.
+     *
+     * @param componentType
+     * @return an Optional with the found component.
+     */
+    public synchronized Optional<Component> getComponentByType(ComponentType componentType) {
+        if (componentType.getName() == null) {
+            return Optional.empty();
+        }
+        return componentsByTypeName.get(components, componentType.getName());
+    }
+
+    /**
+     * Returns a component type with the given name using a hash index over the component types.
+     *
+     * @param name
+     * @return an Optional with the found component type.
+     */
+    public synchronized Optional<ComponentType> getComponentTypeByName(String name) {
+        return componentTypesByName.get(componentTypes, name);
+    }
+
+    /**
+     * Returns a relation type with the given name using a hash index over the relation types.
+     *
+     * @param name
+     * @return an Optional with the found relation type.
+     */
+    public synchronized Optional<RelationType> getRelationTypeByName(String name) {
+        return relationTypesByName.get(relationTypes, name);
+    }
+
+    /**
+     * Returns the relations that have the given component as their source.
+     *
+     * @param component
+     * @return the outgoing relations.
+     */
+    public synchronized List<Relation> getOutgoingRelations(Component component) {
+        indexRelations();
+        return relationGraph.getOutgoingRelations(component);
+    }
+
+    /**
+     * Returns the relations that have the given component as their target.
+     *
+     * @param component
+     * @return the incoming relations.
+     */
+    public synchronized List<Relation> getIncomingRelations(Component component) {
+        indexRelations();
+        return relationGraph.getIncomingRelations(component);
+    }
+
+    /*
+     * Relations that were loaded with the model are kept as they are, even if some of them are duplicates.
+     */
+    private void indexRelations() {
+        if (indexedRelations == relations && indexedRelationsSize == relations.size()) {
+            return;
+        }
+        relationGraph = new RelationGraph();
+        for (Relation relation : relations) {
+            relationGraph.add(relation);
+        }
+        indexedRelations = relations;
+        indexedRelationsSize = relations.size();
+    }
+
     /*
      * Add new relations to the existing ones.
+     * A relation is skipped if there already is a relation with the same source, target and type.
      */
-    public void addRelations(Collection<Relation> newRelations) {
-        List<Relation> relations = this.getRelations();
-        relations.addAll(newRelations);
-        this.setRelations(relations);
+    public synchronized void addRelations(Collection<Relation> newRelations) {
+        indexRelations();
+        for (Relation relation : newRelations) {
+            if (relationGraph.add(relation)) {
+                relations.add(relation);
+            }
+        }
+        indexedRelationsSize = relations.size();
     }
     
     
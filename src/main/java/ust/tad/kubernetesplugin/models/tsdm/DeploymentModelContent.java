@@ -4,12 +4,26 @@ import java.net.URL;
 import java.util.List;
 import java.util.Objects;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The annotated lines of a file are either stored as single lines or as line ranges.
+ * Only one of both representations is stored at a time and serialized, the other one is derived on access
+ * without changing the stored one.
+ * Contents are equal if their lines are equal, regardless of how they are stored.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE, isGetterVisibility = JsonAutoDetect.Visibility.NONE)
 public class DeploymentModelContent {
 
     private URL location;    
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<Line> lines;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<LineRange> lineRanges;
+
     
     public DeploymentModelContent() {
     }
@@ -31,7 +45,17 @@ public class DeploymentModelContent {
         this.location = location;
     }
 
+    /**
+     * Returns the annotated lines.
+     * If the lines are stored as ranges, a new list of the expanded lines is returned,
+     * so changes to it do not affect this content.
+     *
+     * @return the annotated lines.
+     */
     public List<Line> getLines() {
+        if (this.lines == null && this.lineRanges != null) {
+            return LineRange.toLines(this.lineRanges);
+        }
         return this.lines;
     }
 
@@ -40,6 +64,29 @@ public class DeploymentModelContent {
             throw new InvalidNumberOfLinesException("A DeploymentModelContent must have at least one Line");
         } else {
             this.lines = lines;
+            this.lineRanges = null;
+        }
+    }
+
+    /**
+     * Returns the annotated lines as ranges of consecutive lines with the same annotations.
+     * If the lines are stored as single lines, the ranges are derived from them.
+     *
+     * @return the line ranges.
+     */
+    public List<LineRange> getLineRanges() {
+        if (this.lineRanges == null && this.lines != null) {
+            return LineRange.fromLines(this.lines);
+        }
+        return this.lineRanges;
+    }
+
+    public void setLineRanges(List<LineRange> lineRanges) throws InvalidNumberOfLinesException {
+        if(lineRanges.isEmpty()){
+            throw new InvalidNumberOfLinesException("A DeploymentModelContent must have at least one Line");
+        } else {
+            this.lineRanges = lineRanges;
+            this.lines = null;
         }
     }
 
@@ -53,6 +100,11 @@ public class DeploymentModelContent {
         return this;
     }
 
+    public DeploymentModelContent lineRanges(List<LineRange> lineRanges) throws InvalidNumberOfLinesException {
+        setLineRanges(lineRanges);
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == this)
@@ -61,23 +113,58 @@ public class DeploymentModelContent {
             return false;
         }
         DeploymentModelContent deploymentModelContent = (DeploymentModelContent) o;
-        return Objects.equals(location, deploymentModelContent.location) && Objects.equals(lines, deploymentModelContent.lines);
+        return Objects.equals(location, deploymentModelContent.location)
+            && getNumberOfLines() == deploymentModelContent.getNumberOfLines()
+            && Objects.equals(getNormalizedLineRanges(), deploymentModelContent.getNormalizedLineRanges());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(location, lines);
+        return Objects.hash(location, getNumberOfLines());
     }
 
     @Override
     public String toString() {
         return "{" +
             " location='" + getLocation() + "'" +
-            ", lines='" + getLines() + "'" +
+            (this.lineRanges != null ? ", lineRanges='" + this.lineRanges + "'" : ", lines='" + this.lines + "'") +
             "}";
     }
 
+    /**
+     * Returns the annotated lines as merged ranges for comparisons, which is the same for both representations.
+     */
+    private List<LineRange> getNormalizedLineRanges() {
+        if (this.lineRanges != null) {
+            return LineRange.normalize(this.lineRanges);
+        }
+        return this.lines == null ? null : LineRange.fromLines(this.lines);
+    }
+
+    /**
+     * Returns the number of annotated lines without expanding or merging the stored representation.
+     */
+    private int getNumberOfLines() {
+        if (this.lineRanges != null) {
+            int numberOfLines = 0;
+            for (LineRange lineRange : this.lineRanges) {
+                numberOfLines += lineRange.getEndLineNumber() - lineRange.getStartLineNumber() + 1;
+            }
+            return numberOfLines;
+        }
+        return this.lines == null ? 0 : this.lines.size();
+    }
+
+    /**
+     * Adds a line, if the lines are stored as ranges, they are stored as single lines from then on.
+     *
+     * @param line
+     */
     public void addLine(Line line) {
+        if (this.lines == null && this.lineRanges != null) {
+            this.lines = LineRange.toLines(this.lineRanges);
+            this.lineRanges = null;
+        }
         this.lines.add(line);
         for(Line lineElement : this.lines) {
             if(lineElement.getNumber() == 0) {
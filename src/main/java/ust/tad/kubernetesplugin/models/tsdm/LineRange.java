@@ -0,0 +1,210 @@
+package ust.tad.kubernetesplugin.models.tsdm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Consecutive lines from startLineNumber to endLineNumber that share the same annotations.
+ */
+public class LineRange {
+
+    private int startLineNumber;
+
+    private int endLineNumber;
+
+    private double comprehensibility = 0;
+
+    private boolean analyzed = false;
+
+
+    public LineRange() {
+    }
+
+    public LineRange(int startLineNumber, int endLineNumber, double comprehensibility, boolean analyzed) throws InvalidAnnotationException {
+        if (endLineNumber < startLineNumber) {
+            throw new InvalidAnnotationException("The end line of a line range must not be before its start line, range given: "+startLineNumber+"-"+endLineNumber);
+        } else if (comprehensibility < 0 || comprehensibility > 1) {
+            throw new InvalidAnnotationException("Comprehensibility must be a value between 0 and 1, value given: "+comprehensibility);
+        } else {
+            this.startLineNumber = startLineNumber;
+            this.endLineNumber = endLineNumber;
+            this.comprehensibility = comprehensibility;
+            this.analyzed = analyzed;
+        }
+    }
+
+    public int getStartLineNumber() {
+        return this.startLineNumber;
+    }
+
+    public void setStartLineNumber(int startLineNumber) {
+        this.startLineNumber = startLineNumber;
+    }
+
+    public int getEndLineNumber() {
+        return this.endLineNumber;
+    }
+
+    public void setEndLineNumber(int endLineNumber) {
+        this.endLineNumber = endLineNumber;
+    }
+
+    public double getComprehensibility() {
+        return this.comprehensibility;
+    }
+
+    public void setComprehensibility(double comprehensibility) throws InvalidAnnotationException {
+        if (comprehensibility < 0 || comprehensibility > 1) {
+            throw new InvalidAnnotationException("Comprehensibility must be a value between 0 and 1, value given: "+comprehensibility);
+        }
+        this.comprehensibility = comprehensibility;
+    }
+
+    public boolean isAnalyzed() {
+        return this.analyzed;
+    }
+
+    public boolean getAnalyzed() {
+        return this.analyzed;
+    }
+
+    public void setAnalyzed(boolean analyzed) {
+        this.analyzed = analyzed;
+    }
+
+    public LineRange startLineNumber(int startLineNumber) {
+        setStartLineNumber(startLineNumber);
+        return this;
+    }
+
+    public LineRange endLineNumber(int endLineNumber) {
+        setEndLineNumber(endLineNumber);
+        return this;
+    }
+
+    public LineRange comprehensibility(double comprehensibility) throws InvalidAnnotationException {
+        setComprehensibility(comprehensibility);
+        return this;
+    }
+
+    public LineRange analyzed(boolean analyzed) {
+        setAnalyzed(analyzed);
+        return this;
+    }
+
+    /**
+     * Checks whether the given line directly follows this range and has the same annotations.
+     *
+     * @param lineNumber
+     * @param comprehensibility
+     * @param analyzed
+     * @return true if the range can be extended by the line.
+     */
+    public boolean isContinuedBy(int lineNumber, double comprehensibility, boolean analyzed) {
+        return lineNumber == this.endLineNumber + 1 && comprehensibility == this.comprehensibility && analyzed == this.analyzed;
+    }
+
+    /**
+     * Creates the ranges for a list of lines, merging consecutive lines with the same annotations.
+     * The annotations of the lines have been validated by the lines already.
+     *
+     * @param lines
+     * @return the line ranges.
+     */
+    public static List<LineRange> fromLines(List<Line> lines) {
+        List<LineRange> lineRanges = new ArrayList<>();
+        LineRange lineRange = null;
+        for (Line line : lines) {
+            if (lineRange != null && lineRange.isContinuedBy(line.getNumber(), line.getComprehensibility(), line.isAnalyzed())) {
+                lineRange.endLineNumber = line.getNumber();
+            } else {
+                lineRange = createValidated(line.getNumber(), line.getNumber(), line.getComprehensibility(), line.isAnalyzed());
+                lineRanges.add(lineRange);
+            }
+        }
+        return lineRanges;
+    }
+
+    /**
+     * Merges consecutive ranges with the same annotations into one range,
+     * so that the same lines are always described by the same ranges.
+     * The given ranges are not changed.
+     *
+     * @param lineRanges
+     * @return the merged line ranges.
+     */
+    public static List<LineRange> normalize(List<LineRange> lineRanges) {
+        List<LineRange> normalizedLineRanges = new ArrayList<>();
+        LineRange normalizedLineRange = null;
+        for (LineRange lineRange : lineRanges) {
+            if (normalizedLineRange != null
+                && normalizedLineRange.isContinuedBy(lineRange.startLineNumber, lineRange.comprehensibility, lineRange.analyzed)) {
+                normalizedLineRange.endLineNumber = lineRange.endLineNumber;
+            } else {
+                normalizedLineRange = createValidated(lineRange.startLineNumber, lineRange.endLineNumber, lineRange.comprehensibility, lineRange.analyzed);
+                normalizedLineRanges.add(normalizedLineRange);
+            }
+        }
+        return normalizedLineRanges;
+    }
+
+    private static LineRange createValidated(int startLineNumber, int endLineNumber, double comprehensibility, boolean analyzed) {
+        LineRange lineRange = new LineRange();
+        lineRange.startLineNumber = startLineNumber;
+        lineRange.endLineNumber = endLineNumber;
+        lineRange.comprehensibility = comprehensibility;
+        lineRange.analyzed = analyzed;
+        return lineRange;
+    }
+
+    /**
+     * Creates a line for each line number contained in the ranges.
+     *
+     * @param lineRanges
+     * @return the lines.
+     */
+    public static List<Line> toLines(List<LineRange> lineRanges) {
+        List<Line> lines = new ArrayList<>();
+        for (LineRange lineRange : lineRanges) {
+            for (int number = lineRange.getStartLineNumber(); number <= lineRange.getEndLineNumber(); number++) {
+                Line line = new Line(number);
+                try {
+                    line.setAnalyzed(lineRange.isAnalyzed());
+                    line.setComprehensibility(lineRange.getComprehensibility());
+                } catch (InvalidAnnotationException e) {
+                    throw new IllegalStateException("Line range with invalid annotations: " + lineRange, e);
+                }
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof LineRange)) {
+            return false;
+        }
+        LineRange lineRange = (LineRange) o;
+        return startLineNumber == lineRange.startLineNumber && endLineNumber == lineRange.endLineNumber && comprehensibility == lineRange.comprehensibility && analyzed == lineRange.analyzed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startLineNumber, endLineNumber, comprehensibility, analyzed);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+            " startLineNumber='" + getStartLineNumber() + "'" +
+            ", endLineNumber='" + getEndLineNumber() + "'" +
+            ", comprehensibility='" + getComprehensibility() + "'" +
+            ", analyzed='" + isAnalyzed() + "'" +
+            "}";
+    }
+
+}
@@ -0,0 +1,37 @@
+package ust.tad.kubernetesplugin;
+
+import java.lang.reflect.Method;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Initializes beans with field injection in unit tests that run without an application context.
+ */
+public final class TestBeans {
+
+    private TestBeans() {
+    }
+
+    /**
+     * Injects the given values into the fields of the bean, i.e., its autowired collaborators and configured values,
+     * and calls its @PostConstruct methods like the application context would.
+     *
+     * @param bean
+     * @param fieldNamesAndValues alternating field names and values.
+     * @return the initialized bean.
+     */
+    public static <T> T initialize(T bean, Object... fieldNamesAndValues) {
+        for (int i = 0; i < fieldNamesAndValues.length; i += 2) {
+            ReflectionTestUtils.setField(bean, (String) fieldNamesAndValues[i], fieldNamesAndValues[i + 1]);
+        }
+        for (Method method : bean.getClass().getDeclaredMethods()) {
+            if (method.isAnnotationPresent(PostConstruct.class)) {
+                ReflectionTestUtils.invokeMethod(bean, method.getName());
+            }
+        }
+        return bean;
+    }
+
+}
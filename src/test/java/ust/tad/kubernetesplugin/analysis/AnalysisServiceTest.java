@@ -0,0 +1,230 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ust.tad.kubernetesplugin.TestBeans;
+import ust.tad.kubernetesplugin.analysistask.AnalysisTaskResponseSender;
+import ust.tad.kubernetesplugin.analysistask.Location;
+import ust.tad.kubernetesplugin.models.ModelsService;
+import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
+import ust.tad.kubernetesplugin.models.tsdm.DeploymentModelContent;
+import ust.tad.kubernetesplugin.models.tsdm.TechnologySpecificDeploymentModel;
+
+public class AnalysisServiceTest {
+
+    private static final List<String> DEPLOYMENT = List.of(
+        "kind: Deployment",
+        "metadata:",
+        "  name: orders",
+        "spec:",
+        "  template:",
+        "    spec:",
+        "      containers:",
+        "        - name: orders",
+        "          image: orders:1.0");
+
+    private final UUID taskId = UUID.randomUUID();
+
+    private final UUID transformationProcessId = UUID.randomUUID();
+
+    private final RecordingResponseSender analysisTaskResponseSender = new RecordingResponseSender();
+
+    @Test
+    public void sendSuccessResponse_success() throws Exception {
+        Path file = Files.createTempFile("manifest", ".yaml");
+        Scheduler analysisScheduler = Schedulers.newBoundedElastic(2, 100, "analysis-test");
+        try {
+            Files.write(file, DEPLOYMENT);
+            URL url = file.toUri().toURL();
+            FakeModelsService modelsService = new FakeModelsService(
+                Mono.just(createTsdm(url)), Mono.just(new TechnologyAgnosticDeploymentModel()), Mono.empty());
+
+            createAnalysisService(modelsService, analysisScheduler)
+                .startAnalysis(taskId, transformationProcessId, List.of(), List.of(new Location(url, 0, 0)))
+                .block(Duration.ofSeconds(10));
+
+            assertEquals(List.of("success " + taskId), analysisTaskResponseSender.responses);
+            assertEquals("orders", modelsService.updatedTadm.getComponents().get(0).getName());
+        } finally {
+            analysisScheduler.dispose();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void sendFailureResponseOnFailedUpdate_success() throws Exception {
+        Path file = Files.createTempFile("manifest", ".yaml");
+        Scheduler analysisScheduler = Schedulers.newBoundedElastic(2, 100, "analysis-test");
+        try {
+            Files.write(file, DEPLOYMENT);
+            URL url = file.toUri().toURL();
+            FakeModelsService modelsService = new FakeModelsService(
+                Mono.just(createTsdm(url)), Mono.just(new TechnologyAgnosticDeploymentModel()),
+                Mono.error(new IllegalStateException("Models service unavailable")));
+
+            createAnalysisService(modelsService, analysisScheduler)
+                .startAnalysis(taskId, transformationProcessId, List.of(), List.of(new Location(url, 0, 0)))
+                .block(Duration.ofSeconds(10));
+
+            assertEquals(List.of("failure " + taskId + " class java.lang.IllegalStateException: Models service unavailable"),
+                analysisTaskResponseSender.responses);
+        } finally {
+            analysisScheduler.dispose();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void sendFailureResponseOnMissingTsdm_success() throws Exception {
+        Path file = Files.createTempFile("manifest", ".yaml");
+        Scheduler analysisScheduler = Schedulers.newBoundedElastic(2, 100, "analysis-test");
+        try {
+            Files.write(file, DEPLOYMENT);
+            FakeModelsService modelsService = new FakeModelsService(
+                Mono.just(createTsdm(new URL("file:/other.yaml"))), Mono.just(new TechnologyAgnosticDeploymentModel()), Mono.empty());
+
+            createAnalysisService(modelsService, analysisScheduler)
+                .startAnalysis(taskId, transformationProcessId, List.of(), List.of(new Location(file.toUri().toURL(), 0, 0)))
+                .block(Duration.ofSeconds(10));
+
+            assertEquals(List.of("failure " + taskId + " class java.lang.IllegalStateException: No technology-specific deployment model found!"),
+                analysisTaskResponseSender.responses);
+            assertNull(modelsService.updatedTadm);
+        } finally {
+            analysisScheduler.dispose();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void sendFailureResponseOnFailedTadmRequest_success() throws Exception {
+        Path file = Files.createTempFile("manifest", ".yaml");
+        Scheduler analysisScheduler = Schedulers.newBoundedElastic(2, 100, "analysis-test");
+        try {
+            Files.write(file, DEPLOYMENT);
+            URL url = file.toUri().toURL();
+            FakeModelsService modelsService = new FakeModelsService(
+                Mono.just(createTsdm(url)), Mono.error(new IllegalStateException("Models service unavailable")), Mono.empty());
+
+            createAnalysisService(modelsService, analysisScheduler)
+                .startAnalysis(taskId, transformationProcessId, List.of(), List.of(new Location(url, 0, 0)))
+                .block(Duration.ofSeconds(10));
+
+            assertEquals(List.of("failure " + taskId + " class java.lang.IllegalStateException: Models service unavailable"),
+                analysisTaskResponseSender.responses);
+            assertNull(modelsService.updatedTadm);
+        } finally {
+            analysisScheduler.dispose();
+            Files.delete(file);
+        }
+    }
+
+    private AnalysisService createAnalysisService(ModelsService modelsService, Scheduler analysisScheduler) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransformationService transformationService = TestBeans.initialize(new TransformationService(),
+            "relationFinderService", TestBeans.initialize(new RelationFinderService(), "meterRegistry", meterRegistry),
+            "imageArtifactCache", TestBeans.initialize(new ImageArtifactCache(), "meterRegistry", meterRegistry, "maxEntries", 16),
+            "transformationPool", ForkJoinPool.commonPool(),
+            "parallelTransformationEnabled", false,
+            "componentTypeDeduplicationEnabled", false);
+        ManifestParserService manifestParserService = TestBeans.initialize(new ManifestParserService(),
+            "parseResultCache", TestBeans.initialize(new ParseResultCache(), "meterRegistry", meterRegistry, "enabled", false, "maxEntries", 16),
+            "parseResultDiskStore", TestBeans.initialize(new ParseResultDiskStore(), "enabled", false),
+            "lineIndexCacheSize", 16);
+        return TestBeans.initialize(new AnalysisService(),
+            "modelsService", modelsService,
+            "analysisTaskResponseSender", analysisTaskResponseSender,
+            "transformationService", transformationService,
+            "manifestParserService", manifestParserService,
+            "manifestFileWalker", new ManifestFileWalker(),
+            "analysisScheduler", analysisScheduler,
+            "lineRangesEnabled", false);
+    }
+
+    private TechnologySpecificDeploymentModel createTsdm(URL url) throws Exception {
+        DeploymentModelContent content = new DeploymentModelContent();
+        content.setLocation(url);
+        return new TechnologySpecificDeploymentModel(transformationProcessId, "kubernetes", List.of(), new ArrayList<>(List.of(content)));
+    }
+
+    /*
+     * Answers the requests of the analysis with the given Monos and records the updated models.
+     */
+    private static class FakeModelsService extends ModelsService {
+
+        private final Mono<TechnologySpecificDeploymentModel> tsdm;
+
+        private final Mono<TechnologyAgnosticDeploymentModel> tadm;
+
+        private final Mono<Void> update;
+
+        private volatile TechnologyAgnosticDeploymentModel updatedTadm;
+
+        FakeModelsService(Mono<TechnologySpecificDeploymentModel> tsdm, Mono<TechnologyAgnosticDeploymentModel> tadm, Mono<Void> update) {
+            this.tsdm = tsdm;
+            this.tadm = tadm;
+            this.update = update;
+        }
+
+        @Override
+        public Mono<TechnologySpecificDeploymentModel> getTechnologySpecificDeploymentModel(UUID transformationProcessId) {
+            return tsdm;
+        }
+
+        @Override
+        public Mono<TechnologyAgnosticDeploymentModel> getTechnologyAgnosticDeploymentModel(UUID transformationProcessId) {
+            return tadm;
+        }
+
+        @Override
+        public Mono<Void> updateDeploymentModels(TechnologySpecificDeploymentModel technologySpecificDeploymentModel,
+            TechnologyAgnosticDeploymentModel technologyAgnosticDeploymentModel) {
+            updatedTadm = technologyAgnosticDeploymentModel;
+            return update;
+        }
+
+    }
+
+    /*
+     * Records the responses instead of sending them.
+     */
+    private static class RecordingResponseSender extends AnalysisTaskResponseSender {
+
+        private final List<String> responses = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void sendSuccessResponse(UUID taskId) {
+            responses.add("success " + taskId);
+        }
+
+        @Override
+        public void sendFailureResponse(UUID taskId, String errorMessage) {
+            responses.add("failure " + taskId + " " + errorMessage);
+        }
+
+        @Override
+        public void sendEmbeddedDeploymentModelAnalysisRequestFromModel(TechnologySpecificDeploymentModel embeddedDeploymentModel, UUID parentTaskId) {
+            responses.add("embedded " + parentTaskId);
+        }
+
+    }
+
+}
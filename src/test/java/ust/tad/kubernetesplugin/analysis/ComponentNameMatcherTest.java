@@ -0,0 +1,31 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class ComponentNameMatcherTest {
+
+    @Test
+    public void findLongestMatch_success() {
+        ComponentNameMatcher componentNameMatcher = new ComponentNameMatcher(
+            List.of("my-service", "my-service-db", "db", "service-d", "orders"));
+
+        assertEquals(Optional.of("my-service-db"), componentNameMatcher.findLongestMatch("jdbc:mysql://my-service-db:3306/app"));
+        assertEquals(Optional.of("my-service"), componentNameMatcher.findLongestMatch("http://my-service:8080"));
+        assertEquals(Optional.of("service-d"), componentNameMatcher.findLongestMatch("http://service-db"));
+        assertEquals(Optional.of("db"), componentNameMatcher.findLongestMatch("mongodb://mongo:27017"));
+        assertEquals(Optional.empty(), componentNameMatcher.findLongestMatch("http://payments:8080"));
+    }
+
+    @Test
+    public void chooseFirstOfEqualLength_success() {
+        ComponentNameMatcher componentNameMatcher = new ComponentNameMatcher(List.of("cart", "shop", "cartshop"));
+
+        assertEquals(Optional.of("cart"), componentNameMatcher.findLongestMatch("shop-cart"));
+    }
+
+}
@@ -0,0 +1,45 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ComponentNamePrefilterTest {
+
+    @Test
+    public void mightContainName_success() {
+        ComponentNamePrefilter componentNamePrefilter =
+            new ComponentNamePrefilter(List.of("postgres-inventory", "my-service", "orders-db"));
+
+        assertTrue(componentNamePrefilter.mightContainName("jdbc:postgresql://postgres-inventory:5432/inventory"));
+        assertTrue(componentNamePrefilter.mightContainName("http://My-Service:8080"));
+        assertTrue(componentNamePrefilter.mightContainName("orde"));
+        assertFalse(componentNamePrefilter.mightContainName("http://localhost:8080"));
+        assertFalse(componentNamePrefilter.mightContainName("ord"));
+        assertFalse(componentNamePrefilter.mightContainName(""));
+    }
+
+    @Test
+    public void mightContainNameWithShortNames_success() {
+        assertTrue(new ComponentNamePrefilter(List.of("db", "my-service")).mightContainName("tcp://db:5432"));
+        assertTrue(new ComponentNamePrefilter(List.of("", "my-service")).mightContainName("anything"));
+        assertFalse(new ComponentNamePrefilter(new ArrayList<>()).mightContainName("my-service"));
+    }
+
+    @Test
+    public void noFalseNegatives_success() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            names.add("component-" + Integer.toString(i * 7919, 36));
+        }
+        ComponentNamePrefilter componentNamePrefilter = new ComponentNamePrefilter(names);
+        for (String name : names) {
+            assertTrue(componentNamePrefilter.mightContainName("http://user@" + name.toUpperCase() + ":80/path"));
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ust.tad.kubernetesplugin.TestBeans;
+import ust.tad.kubernetesplugin.models.tadm.Artifact;
+
+public class ImageArtifactCacheTest {
+
+    @Test
+    public void returnNewArtifactsOfInternedImages_success() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ImageArtifactCache imageArtifactCache = TestBeans.initialize(new ImageArtifactCache(),
+            "meterRegistry", meterRegistry, "maxEntries", 16);
+
+        Artifact first = imageArtifactCache.getArtifact(new String("istio/proxyv2:1.16.1"));
+        first.setName("changed");
+        Artifact second = imageArtifactCache.getArtifact(new String("istio/proxyv2:1.16.1"));
+
+        assertNotSame(first, second);
+        assertEquals("istio/proxyv2:1.16.1", second.getName());
+        assertSame(imageArtifactCache.getImageReference("istio/proxyv2:1.16.1").getImage(), second.getName());
+        assertEquals("docker_image", imageArtifactCache.getArtifact("nginx").getType());
+        assertEquals(2, meterRegistry.get("analysis.transformation.image-cache").tag("result", "hit").counter().count());
+        assertEquals(2, meterRegistry.get("analysis.transformation.image-cache").tag("result", "miss").counter().count());
+        assertEquals(0.5, meterRegistry.get("analysis.transformation.image-cache.hit-ratio").gauge().value());
+    }
+
+    @Test
+    public void shareImageReferencesUpToMaxEntries_success() {
+        ImageArtifactCache imageArtifactCache = TestBeans.initialize(new ImageArtifactCache(),
+            "meterRegistry", new SimpleMeterRegistry(), "maxEntries", 1);
+
+        assertSame(imageArtifactCache.getImageReference("nginx"), imageArtifactCache.getImageReference("nginx"));
+        assertNotSame(imageArtifactCache.getImageReference("redis"), imageArtifactCache.getImageReference("redis"));
+        assertEquals(imageArtifactCache.getImageReference("redis"), imageArtifactCache.getImageReference("redis"));
+    }
+
+    @Test
+    public void parseImageReferences_success() {
+        assertParts(ImageReference.parse("nginx"), null, "nginx", null, null);
+        assertParts(ImageReference.parse("istio/proxyv2:1.16.1"), null, "istio/proxyv2", "1.16.1", null);
+        assertParts(ImageReference.parse("localhost/orders"), "localhost", "orders", null, null);
+        assertParts(ImageReference.parse("registry.example.com:5000/team/orders:2.1"),
+            "registry.example.com:5000", "team/orders", "2.1", null);
+        assertParts(ImageReference.parse("gcr.io/distroless/static@sha256:abc123"),
+            "gcr.io", "distroless/static", null, "sha256:abc123");
+        assertParts(ImageReference.parse("docker.io/library/postgres:14@sha256:def456"),
+            "docker.io", "library/postgres", "14", "sha256:def456");
+    }
+
+    private void assertParts(ImageReference imageReference, String registry, String repository, String tag, String digest) {
+        assertEquals(registry, imageReference.getRegistry());
+        assertEquals(repository, imageReference.getRepository());
+        assertEquals(tag, imageReference.getTag());
+        assertEquals(digest, imageReference.getDigest());
+    }
+
+}
@@ -0,0 +1,104 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import ust.tad.kubernetesplugin.TestBeans;
+
+public class ManifestFileWalkerTest {
+
+    private static final Set<String> SUPPORTED_FILE_EXTENSIONS = Set.of("yaml", "yml");
+
+    @Test
+    public void includeAndExcludeFiles_success() throws IOException, URISyntaxException {
+        Path directory = createDirectory();
+        try {
+            assertEquals(List.of("a.yaml", "b.yml", "sub/d.yaml", "sub/deep/e.yaml"),
+                findFiles(directory, 16, new String[] {"**"}, new String[] {".git", "**/.git", "templates"}));
+            assertEquals(List.of("sub/d.yaml", "sub/deep/e.yaml"),
+                findFiles(directory, 16, new String[] {"sub/**"}, new String[] {".git", "**/.git"}));
+            assertEquals(List.of("a.yaml", "b.yml", "sub/d.yaml", "sub/deep/e.yaml", "templates/f.yaml"),
+                findFiles(directory, 16, new String[] {""}, new String[] {"**/.git", ".git", "**/c.*"}));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void limitDepth_success() throws IOException, URISyntaxException {
+        Path directory = createDirectory();
+        try {
+            assertEquals(List.of("a.yaml", "b.yml"),
+                findFiles(directory, 1, new String[] {"**"}, new String[] {".git"}));
+            assertEquals(List.of("a.yaml", "b.yml", "sub/d.yaml", "templates/f.yaml"),
+                findFiles(directory, 2, new String[] {"**"}, new String[] {".git"}));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void skipUnreadableDirectory_success() throws IOException, URISyntaxException {
+        Path directory = createDirectory();
+        Path locked = Files.createDirectory(directory.resolve("locked"));
+        Files.writeString(locked.resolve("g.yaml"), "kind: Service");
+        try {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("---------"));
+            // Privileged users can still read the directory, then its file is found.
+            boolean readable = Files.isReadable(locked) && Files.isExecutable(locked);
+            List<String> expectedFiles = new ArrayList<>(List.of("a.yaml", "b.yml"));
+            if (readable) {
+                expectedFiles.add("locked/g.yaml");
+            }
+            expectedFiles.addAll(List.of("sub/d.yaml", "sub/deep/e.yaml", "templates/f.yaml"));
+
+            assertEquals(expectedFiles, findFiles(directory, 16, new String[] {"**"}, new String[] {".git"}));
+        } finally {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+            delete(directory);
+        }
+    }
+
+    private List<String> findFiles(Path directory, int maxDepth, String[] includePatterns, String[] excludePatterns) throws IOException, URISyntaxException {
+        ManifestFileWalker manifestFileWalker = TestBeans.initialize(new ManifestFileWalker(),
+            "maxDepth", maxDepth, "includePatterns", includePatterns, "excludePatterns", excludePatterns);
+        List<String> relativePaths = new ArrayList<>();
+        for (URL url : manifestFileWalker.findFiles(directory, SUPPORTED_FILE_EXTENSIONS)) {
+            relativePaths.add(directory.relativize(Paths.get(url.toURI())).toString());
+        }
+        return relativePaths;
+    }
+
+    private Path createDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("manifests");
+        for (String file : List.of("a.yaml", "b.yml", "c.txt", ".git/config.yaml", "sub/d.yaml", "sub/deep/e.yaml", "templates/f.yaml")) {
+            Path path = directory.resolve(file);
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, "kind: Service");
+        }
+        return directory;
+    }
+
+    private void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ust.tad.kubernetesplugin.TestBeans;
+import ust.tad.kubernetesplugin.analysis.parser.ParseResult;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+
+public class ManifestParserServiceTest {
+
+    private static final List<String> SERVICE = List.of(
+        "kind: Service",
+        "metadata:",
+        "  name: orders",
+        "spec:",
+        "  selector:",
+        "    app: orders");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void cacheResultsOfParsedContent_success() throws IOException, InvalidAnnotationException {
+        ParseResultCache parseResultCache = createParseResultCache(true);
+        ManifestParserService manifestParserService = createManifestParserService(parseResultCache, null, false);
+        Path file = Files.createTempFile("manifest", ".yaml");
+        try {
+            Files.write(file, SERVICE);
+            URL url = file.toUri().toURL();
+
+            ParseResult first = manifestParserService.parseFile(url);
+            ParseResult second = manifestParserService.parseFile(url);
+            assertEquals(first, second);
+            assertEquals(1, getCacheCount("hit"));
+            assertEquals(1, getCacheCount("miss"));
+
+            Files.write(file, List.of("kind: Service", "metadata:", "  name: payments"));
+            assertEquals("payments", manifestParserService.parseFile(url).getServices().iterator().next().getName());
+            assertEquals(2, getCacheCount("miss"));
+            assertNotNull(parseResultCache.get(parseResultCache.createKey(Files.readAllBytes(file))));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void cacheRangesByContentAndFirstLine_success() throws IOException, InvalidAnnotationException {
+        ManifestParserService manifestParserService = createManifestParserService(createParseResultCache(true), null, false);
+        Path file = Files.createTempFile("manifest", ".yaml");
+        try {
+            Files.write(file, (String.join("\n", SERVICE) + "\n---\n" + String.join("\n", SERVICE) + "\n").getBytes(StandardCharsets.UTF_8));
+            URL url = file.toUri().toURL();
+
+            ParseResult first = manifestParserService.parseFile(url, 1, 6);
+            ParseResult second = manifestParserService.parseFile(url, 8, 13);
+            assertEquals(2, getCacheCount("miss"));
+            assertEquals(1, first.getLineRanges().get(0).getStartLineNumber());
+            assertEquals(8, second.getLineRanges().get(0).getStartLineNumber());
+
+            assertEquals(second, manifestParserService.parseFile(url, 8, 13));
+            assertEquals(1, getCacheCount("hit"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void parseRangesAtBoundaries_success() throws IOException, InvalidAnnotationException {
+        ManifestParserService manifestParserService = createManifestParserService(createParseResultCache(false), null, false);
+        Path file = Files.createTempFile("manifest", ".yaml");
+        try {
+            Files.write(file, (String.join("\n", SERVICE) + "\n---\n" + String.join("\n", SERVICE).replace("orders", "payments"))
+                .getBytes(StandardCharsets.UTF_8));
+            URL url = file.toUri().toURL();
+
+            assertEquals(List.of("orders"), getServiceNames(manifestParserService.parseFile(url, 0, 6)));
+            assertEquals(List.of("payments"), getServiceNames(manifestParserService.parseFile(url, 8, 13)));
+            assertEquals(List.of("payments"), getServiceNames(manifestParserService.parseFile(url, 8, 0)));
+            assertEquals(List.of("payments"), getServiceNames(manifestParserService.parseFile(url, 8, 100)));
+            assertEquals(List.of(), getServiceNames(manifestParserService.parseFile(url, 14, 20)));
+
+            ParseResult parseResult = manifestParserService.parseFile(url, 8, 13);
+            assertEquals(8, parseResult.getLineRanges().get(0).getStartLineNumber());
+            assertEquals(13, parseResult.getLineRanges().get(parseResult.getLineRanges().size() - 1).getEndLineNumber());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void parseFilesInParallel_success() throws IOException, InvalidAnnotationException {
+        ForkJoinPool parserPool = new ForkJoinPool(4);
+        List<Path> files = new ArrayList<>();
+        try {
+            List<URL> urls = new ArrayList<>();
+            for (String name : List.of("orders", "payments", "inventory", "shipping")) {
+                Path file = Files.createTempFile(name, ".yaml");
+                files.add(file);
+                Files.write(file, List.of("kind: Service", "metadata:", "  name: " + name));
+                urls.add(file.toUri().toURL());
+            }
+
+            List<ParseResult> sequentialResults = createManifestParserService(createParseResultCache(true), parserPool, false).parseFiles(urls);
+            List<ParseResult> parallelResults = createManifestParserService(createParseResultCache(true), parserPool, true).parseFiles(urls);
+
+            assertEquals(sequentialResults, parallelResults);
+            List<String> names = new ArrayList<>();
+            for (ParseResult parseResult : parallelResults) {
+                names.add(parseResult.getServices().iterator().next().getName());
+            }
+            assertEquals(List.of("orders", "payments", "inventory", "shipping"), names);
+        } finally {
+            parserPool.shutdown();
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void propagateErrorOfParallelFile_success() throws IOException {
+        ForkJoinPool parserPool = new ForkJoinPool(4);
+        Path file = Files.createTempFile("manifest", ".yaml");
+        Path missingFile = file.resolveSibling(file.getFileName() + ".missing.yaml");
+        try {
+            Files.write(file, SERVICE);
+            List<URL> urls = List.of(file.toUri().toURL(), missingFile.toUri().toURL(), file.toUri().toURL());
+
+            assertThrows(NoSuchFileException.class,
+                () -> createManifestParserService(createParseResultCache(true), parserPool, true).parseFiles(urls));
+        } finally {
+            parserPool.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    private ManifestParserService createManifestParserService(ParseResultCache parseResultCache, ForkJoinPool parserPool, boolean parallel) {
+        return TestBeans.initialize(new ManifestParserService(),
+            "parserPool", parserPool,
+            "parseResultCache", parseResultCache,
+            "parseResultDiskStore", TestBeans.initialize(new ParseResultDiskStore(), "enabled", false),
+            "memoryMappingEnabled", false,
+            "parallelParsingEnabled", parallel,
+            "lineIndexCacheSize", 16);
+    }
+
+    private ParseResultCache createParseResultCache(boolean enabled) {
+        return TestBeans.initialize(new ParseResultCache(),
+            "meterRegistry", meterRegistry, "enabled", enabled, "maxEntries", 16);
+    }
+
+    private List<String> getServiceNames(ParseResult parseResult) {
+        List<String> names = new ArrayList<>();
+        parseResult.getServices().forEach(service -> names.add(service.getName()));
+        return names;
+    }
+
+    private double getCacheCount(String result) {
+        return meterRegistry.get("analysis.parser.cache").tag("result", result).counter().count();
+    }
+
+}
@@ -0,0 +1,96 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ust.tad.kubernetesplugin.TestBeans;
+import ust.tad.kubernetesplugin.analysis.parser.MappedFileLineReader;
+import ust.tad.kubernetesplugin.analysis.parser.ParseResult;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Label;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+import ust.tad.kubernetesplugin.models.tsdm.LineRange;
+
+public class ParseResultCacheTest {
+
+    @Test
+    public void evictLeastRecentlyUsed_success() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ParseResultCache parseResultCache = TestBeans.initialize(new ParseResultCache(),
+            "meterRegistry", meterRegistry, "enabled", true, "maxEntries", 2);
+
+        String first = parseResultCache.createKey("kind: Service".getBytes(StandardCharsets.UTF_8));
+        String second = parseResultCache.createKey("kind: Deployment".getBytes(StandardCharsets.UTF_8));
+        String third = parseResultCache.createKey("kind: ConfigMap".getBytes(StandardCharsets.UTF_8));
+        ParseResult parseResult = new ParseResult(new ArrayList<>(), new HashSet<>(), new HashSet<>());
+        parseResultCache.put(first, parseResult);
+        parseResultCache.put(second, parseResult);
+        assertEquals(parseResult, parseResultCache.get(first));
+        parseResultCache.put(third, parseResult);
+
+        assertNull(parseResultCache.get(second));
+        assertEquals(parseResult, parseResultCache.get(first));
+        assertEquals(2, meterRegistry.get("analysis.parser.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("analysis.parser.cache").tag("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get("analysis.parser.cache.evictions").counter().count());
+    }
+
+    @Test
+    public void createSameKeyForBufferAndReadLines_success() {
+        ParseResultCache parseResultCache = new ParseResultCache();
+        byte[] content = "\uFEFFkind: Service\r\nmetadata:\n  name: orders".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+
+        String key = parseResultCache.createKey(content);
+        MessageDigest messageDigest = parseResultCache.createMessageDigest();
+        List<String> lines = new ArrayList<>();
+        MappedFileLineReader.readLines(buffer, true, line -> lines.add(line.toString()), messageDigest);
+
+        assertEquals(key, parseResultCache.createKey(buffer));
+        assertEquals(0, buffer.position());
+        assertEquals(List.of("kind: Service", "metadata:", "  name: orders"), lines);
+        assertEquals(key, parseResultCache.createKey(messageDigest));
+    }
+
+    @Test
+    public void returnIndependentCopies_success() throws InvalidAnnotationException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ParseResultCache parseResultCache = TestBeans.initialize(new ParseResultCache(),
+            "meterRegistry", meterRegistry, "enabled", true, "maxEntries", 2);
+        Container container = new Container("orders", "orders:1.0", new HashSet<>(), new HashSet<>(Set.of(new EnvironmentVariable("DB_HOST", "orders-db"))));
+        KubernetesDeployment deployment = new KubernetesDeployment("orders", 1, new HashSet<>(Set.of(new Label("app", "orders"))), new HashSet<>(Set.of(container)));
+        ParseResult parseResult = new ParseResult(new ArrayList<>(List.of(new LineRange(1, 10, 1D, true))), new HashSet<>(Set.of(deployment)), new HashSet<>());
+        parseResultCache.put("key", parseResult);
+
+        ParseResult first = parseResultCache.get("key");
+        KubernetesDeployment firstDeployment = first.getDeployments().iterator().next();
+        firstDeployment.setName("changed");
+        firstDeployment.getContainer().iterator().next().getEnvironmentVariables().iterator().next().setValue("changed");
+        first.getLineRanges().get(0).setEndLineNumber(20);
+        deployment.setReplicas(3);
+
+        ParseResult second = parseResultCache.get("key");
+        KubernetesDeployment secondDeployment = second.getDeployments().iterator().next();
+        assertNotSame(firstDeployment, secondDeployment);
+        assertEquals("orders", secondDeployment.getName());
+        assertEquals(1, secondDeployment.getReplicas());
+        assertEquals("orders-db", secondDeployment.getContainer().iterator().next().getEnvironmentVariables().iterator().next().getValue());
+        assertEquals(10, second.getLineRanges().get(0).getEndLineNumber());
+    }
+
+}
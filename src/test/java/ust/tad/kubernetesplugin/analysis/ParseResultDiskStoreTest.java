@@ -0,0 +1,118 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import ust.tad.kubernetesplugin.TestBeans;
+import ust.tad.kubernetesplugin.analysis.parser.ParseResult;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.ContainerPort;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Label;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.Selector;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+import ust.tad.kubernetesplugin.models.tsdm.LineRange;
+
+public class ParseResultDiskStoreTest {
+
+    @Test
+    public void reuseAfterRestart_success() throws IOException, InvalidAnnotationException {
+        Path directory = Files.createTempDirectory("parse-results");
+        try {
+            ParseResult parseResult = createParseResult();
+            createDiskStore(directory, 1024 * 1024).put("first", parseResult);
+
+            ParseResultDiskStore restartedDiskStore = createDiskStore(directory, 1024 * 1024);
+            assertEquals(parseResult, restartedDiskStore.get("first"));
+            assertNull(restartedDiskStore.get("second"));
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed_success() throws IOException, InvalidAnnotationException {
+        Path directory = Files.createTempDirectory("parse-results");
+        try {
+            ParseResultDiskStore diskStore = createDiskStore(directory, 1024 * 1024);
+            ParseResult parseResult = createParseResult();
+            diskStore.put("first", parseResult);
+            long size = Files.size(directory.resolve("first.bin"));
+
+            diskStore = createDiskStore(directory, 2 * size);
+            diskStore.put("second", parseResult);
+            diskStore.get("first");
+            diskStore.put("third", parseResult);
+
+            assertEquals(parseResult, diskStore.get("first"));
+            assertNull(diskStore.get("second"));
+            assertEquals(parseResult, diskStore.get("third"));
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void discardUnreadableFile_success() throws IOException, InvalidAnnotationException {
+        Path directory = Files.createTempDirectory("parse-results");
+        try {
+            ParseResultDiskStore diskStore = createDiskStore(directory, 1024 * 1024);
+            diskStore.put("first", createParseResult());
+            Files.write(directory.resolve("first.bin"), new byte[] { 1, 2, 3 });
+
+            assertNull(diskStore.get("first"));
+            assertFalse(Files.exists(directory.resolve("first.bin")));
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void keepFileReplacedAfterFailedRead_success() throws IOException, InvalidAnnotationException {
+        Path directory = Files.createTempDirectory("parse-results");
+        try {
+            ParseResultDiskStore diskStore = createDiskStore(directory, 1024 * 1024);
+            ParseResult parseResult = createParseResult();
+            diskStore.put("first", parseResult);
+            Object failedFileIdentity = ReflectionTestUtils.invokeMethod(diskStore, "getFileIdentity", directory.resolve("first.bin"));
+
+            diskStore.put("first", parseResult);
+            ReflectionTestUtils.invokeMethod(diskStore, "removeIfUnchanged", "first", failedFileIdentity);
+
+            assertTrue(Files.exists(directory.resolve("first.bin")));
+            assertEquals(parseResult, diskStore.get("first"));
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    private ParseResultDiskStore createDiskStore(Path directory, long maxSizeBytes) {
+        return TestBeans.initialize(new ParseResultDiskStore(),
+            "enabled", true, "directoryName", directory.toString(), "maxSizeBytes", maxSizeBytes);
+    }
+
+    private ParseResult createParseResult() throws InvalidAnnotationException {
+        Container container = new Container("web", "nginx:1.21",
+            Set.of(new ContainerPort("http", 80)),
+            Set.of(new EnvironmentVariable("DB_URL", "jdbc:mysql://db:3306/app"), new EnvironmentVariable("EMPTY", null)));
+        KubernetesDeployment deployment = new KubernetesDeployment("web", 2, Set.of(new Label("app", "web")), Set.of(container));
+        KubernetesService service = new KubernetesService("web", Set.of(), Set.of(new Selector("app", "web")));
+        return new ParseResult(List.of(new LineRange(1, 2, 1D, true), new LineRange(7, 7, 0D, true)),
+            Set.of(deployment), Set.of(service));
+    }
+
+}
@@ -0,0 +1,82 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URISyntaxException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ust.tad.kubernetesplugin.TestBeans;
+import ust.tad.kubernetesplugin.models.tadm.Component;
+import ust.tad.kubernetesplugin.models.tadm.Confidence;
+import ust.tad.kubernetesplugin.models.tadm.InvalidPropertyValueException;
+import ust.tad.kubernetesplugin.models.tadm.InvalidRelationException;
+import ust.tad.kubernetesplugin.models.tadm.Property;
+import ust.tad.kubernetesplugin.models.tadm.PropertyType;
+import ust.tad.kubernetesplugin.models.tadm.RelationType;
+import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
+
+public class RelationFinderServiceTest {
+
+    private final RelationFinderService relationFinderService =
+        TestBeans.initialize(new RelationFinderService(), "meterRegistry", new SimpleMeterRegistry());
+
+    @Test
+    public void findRelationToParsedHost_success() throws InvalidPropertyValueException, InvalidRelationException, URISyntaxException {
+        TechnologyAgnosticDeploymentModel tadm = createTadm();
+        Component orders = createComponent("orders", "SERVICE_URL", "http://my-service:8080/api");
+
+        relationFinderService.findAndCreateRelations(new TransformationContext(tadm), addComponent(tadm, orders));
+
+        assertEquals(1, tadm.getRelations().size());
+        assertEquals("orders_ConnectsTo_my-service", tadm.getRelations().get(0).getName());
+    }
+
+    @Test
+    public void findNoRelationToUnknownParsedHost_success() throws InvalidPropertyValueException, InvalidRelationException, URISyntaxException {
+        TechnologyAgnosticDeploymentModel tadm = createTadm();
+        Component orders = createComponent("orders", "DB_URL", "jdbc:postgresql://my-service-db:5432");
+
+        relationFinderService.findAndCreateRelations(new TransformationContext(tadm), addComponent(tadm, orders));
+
+        assertTrue(tadm.getRelations().isEmpty());
+    }
+
+    @Test
+    public void findRelationToContainedName_success() throws InvalidPropertyValueException, InvalidRelationException, URISyntaxException {
+        TechnologyAgnosticDeploymentModel tadm = createTadm();
+        Component orders = createComponent("orders", "HOSTS", "my-service, other");
+
+        relationFinderService.findAndCreateRelations(new TransformationContext(tadm), addComponent(tadm, orders));
+
+        assertEquals(1, tadm.getRelations().size());
+        assertEquals("orders_ConnectsTo_my-service", tadm.getRelations().get(0).getName());
+    }
+
+    private TechnologyAgnosticDeploymentModel createTadm() {
+        TechnologyAgnosticDeploymentModel tadm = new TechnologyAgnosticDeploymentModel();
+        RelationType connectsTo = new RelationType();
+        connectsTo.setName("ConnectsTo");
+        tadm.getRelationTypes().add(connectsTo);
+        Component myService = new Component();
+        myService.setName("my-service");
+        tadm.getComponents().add(myService);
+        return tadm;
+    }
+
+    private Component createComponent(String name, String key, String value) throws InvalidPropertyValueException {
+        Component component = new Component();
+        component.setName(name);
+        component.setProperties(List.of(new Property(key, PropertyType.STRING, false, value, Confidence.CONFIRMED)));
+        return component;
+    }
+
+    private List<Component> addComponent(TechnologyAgnosticDeploymentModel tadm, Component component) {
+        tadm.getComponents().add(component);
+        return List.of(component);
+    }
+
+}
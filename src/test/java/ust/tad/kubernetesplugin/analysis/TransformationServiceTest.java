@@ -0,0 +1,179 @@
+package ust.tad.kubernetesplugin.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ust.tad.kubernetesplugin.TestBeans;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.ContainerPort;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Label;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.Selector;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.ServicePort;
+import ust.tad.kubernetesplugin.models.tadm.Component;
+import ust.tad.kubernetesplugin.models.tadm.InvalidPropertyValueException;
+import ust.tad.kubernetesplugin.models.tadm.InvalidRelationException;
+import ust.tad.kubernetesplugin.models.tadm.Property;
+import ust.tad.kubernetesplugin.models.tadm.Relation;
+import ust.tad.kubernetesplugin.models.tadm.RelationType;
+import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
+
+public class TransformationServiceTest {
+
+    @Test
+    public void transformInParallel_success() throws InvalidPropertyValueException, InvalidRelationException, URISyntaxException {
+        ForkJoinPool transformationPool = new ForkJoinPool(4);
+        try {
+            TechnologyAgnosticDeploymentModel sequentialTadm = createTadm();
+            createTransformationService(transformationPool, false, false)
+                .transformInternalToTADM(sequentialTadm, createDeployments(), createServices());
+            TechnologyAgnosticDeploymentModel parallelTadm = createTadm();
+            createTransformationService(transformationPool, true, false)
+                .transformInternalToTADM(parallelTadm, createDeployments(), createServices());
+
+            assertEquals(List.of("orders", "orders-db", "payments"), getNames(parallelTadm.getComponents()));
+            assertEquals(describe(sequentialTadm), describe(parallelTadm));
+            assertEquals(List.of("orders_ConnectsTo_orders-db", "payments_ConnectsTo_orders"), getRelationNames(parallelTadm));
+            assertEquals("orders orders-type orders:1.0 [DB_HOST=orders-db, http=8080, web=80:http]", describe(parallelTadm).get(0));
+        } finally {
+            transformationPool.shutdown();
+        }
+    }
+
+    @Test
+    public void shareComponentTypesWithSameSchema_success() throws InvalidPropertyValueException, InvalidRelationException, URISyntaxException {
+        ForkJoinPool transformationPool = new ForkJoinPool(4);
+        try {
+            TechnologyAgnosticDeploymentModel tadm = createTadm();
+            Set<KubernetesDeployment> deployments = createDeployments();
+            deployments.add(createDeployment("shipping", "shipping:1.0", new ContainerPort("http", 8080), new EnvironmentVariable("DB_HOST", "shipping-db")));
+            createTransformationService(transformationPool, true, true)
+                .transformInternalToTADM(tadm, deployments, Set.of());
+
+            Component orders = tadm.getComponentByName("orders").get();
+            Component shipping = tadm.getComponentByName("shipping").get();
+            Component payments = tadm.getComponentByName("payments").get();
+            assertSame(orders.getType(), shipping.getType());
+            assertNotSame(orders.getType(), payments.getType());
+            assertEquals(3, tadm.getComponentTypes().size());
+
+            TechnologyAgnosticDeploymentModel tadmWithoutDeduplication = createTadm();
+            createTransformationService(transformationPool, true, false)
+                .transformInternalToTADM(tadmWithoutDeduplication, deployments, Set.of());
+            assertEquals(4, tadmWithoutDeduplication.getComponentTypes().size());
+        } finally {
+            transformationPool.shutdown();
+        }
+    }
+
+    @Test
+    public void matchServicesByLabel_success() throws InvalidPropertyValueException, InvalidRelationException, URISyntaxException {
+        ForkJoinPool transformationPool = new ForkJoinPool(4);
+        try {
+            Set<KubernetesDeployment> deployments = new LinkedHashSet<>();
+            deployments.add(createDeployment("orders", "orders:1.0", new ContainerPort("http", 8080), new EnvironmentVariable("DB_HOST", "orders-db"), new Label("tier", "backend")));
+            deployments.add(createDeployment("orders-db", "postgres:14", new ContainerPort("postgres", 5432), new EnvironmentVariable("POSTGRES_DB", "orders"), new Label("tier", "db")));
+            deployments.add(createDeployment("payments", "payments:1.0", new ContainerPort("http", 8080), new EnvironmentVariable("PAYMENTS_MODE", "test"), new Label("tier", "backend")));
+            Set<KubernetesService> services = Set.of(
+                new KubernetesService("orders", Set.of(new ServicePort("web", 80, "http")), Set.of(new Selector("app", "orders"), new Selector("tier", "backend"))),
+                new KubernetesService("backend", Set.of(new ServicePort("api", 81, "8080")), Set.of(new Selector("tier", "backend"))),
+                new KubernetesService("database", Set.of(new ServicePort("sql", 5432, "http")), Set.of(new Selector("tier", "db"))),
+                new KubernetesService("inventory", Set.of(new ServicePort("admin", 9000, "http")), Set.of(new Selector("app", "inventory"), new Selector("backend", "tier"))));
+
+            TechnologyAgnosticDeploymentModel tadm = createTadm();
+            createTransformationService(transformationPool, false, false)
+                .transformInternalToTADM(tadm, deployments, services);
+
+            assertEquals(List.of(
+                "orders orders-type orders:1.0 [DB_HOST=orders-db, api=81:8080, http=8080, web=80:http]",
+                "orders-db orders-db-type postgres:14 [POSTGRES_DB=orders, postgres=5432]",
+                "payments payments-type payments:1.0 [PAYMENTS_MODE=test, api=81:8080, http=8080, web=80:http]",
+                "orders_ConnectsTo_orders-db"), describe(tadm));
+        } finally {
+            transformationPool.shutdown();
+        }
+    }
+
+    private TransformationService createTransformationService(ForkJoinPool transformationPool, boolean parallel, boolean deduplication) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return TestBeans.initialize(new TransformationService(),
+            "relationFinderService", TestBeans.initialize(new RelationFinderService(), "meterRegistry", meterRegistry),
+            "imageArtifactCache", TestBeans.initialize(new ImageArtifactCache(), "meterRegistry", meterRegistry, "maxEntries", 16),
+            "transformationPool", transformationPool,
+            "parallelTransformationEnabled", parallel,
+            "componentTypeDeduplicationEnabled", deduplication);
+    }
+
+    private TechnologyAgnosticDeploymentModel createTadm() {
+        TechnologyAgnosticDeploymentModel tadm = new TechnologyAgnosticDeploymentModel();
+        RelationType connectsTo = new RelationType();
+        connectsTo.setName("ConnectsTo");
+        tadm.getRelationTypes().add(connectsTo);
+        return tadm;
+    }
+
+    private Set<KubernetesDeployment> createDeployments() {
+        Set<KubernetesDeployment> deployments = new LinkedHashSet<>();
+        deployments.add(createDeployment("orders", "orders:1.0", new ContainerPort("http", 8080), new EnvironmentVariable("DB_HOST", "orders-db")));
+        deployments.add(createDeployment("orders-db", "postgres:14", new ContainerPort("postgres", 5432), new EnvironmentVariable("POSTGRES_DB", "orders")));
+        deployments.add(createDeployment("payments", "payments:1.0", new ContainerPort("http", 8080), new EnvironmentVariable("ORDERS_URL", "http://orders:8080")));
+        return deployments;
+    }
+
+    private KubernetesDeployment createDeployment(String name, String image, ContainerPort containerPort, EnvironmentVariable environmentVariable, Label... labels) {
+        Container container = new Container(name, image, Set.of(containerPort), Set.of(environmentVariable));
+        Set<Label> allLabels = new LinkedHashSet<>(List.of(labels));
+        allLabels.add(new Label("app", name));
+        return new KubernetesDeployment(name, 1, allLabels, Set.of(container));
+    }
+
+    private Set<KubernetesService> createServices() {
+        return Set.of(new KubernetesService("orders", Set.of(new ServicePort("web", 80, "http")), Set.of(new Selector("app", "orders"))));
+    }
+
+    private List<String> getNames(List<Component> components) {
+        List<String> names = new ArrayList<>();
+        for (Component component : components) {
+            names.add(component.getName());
+        }
+        return names;
+    }
+
+    private List<String> describe(TechnologyAgnosticDeploymentModel tadm) {
+        List<String> descriptions = new ArrayList<>();
+        for (Component component : tadm.getComponents()) {
+            List<String> properties = new ArrayList<>();
+            for (Property property : component.getProperties()) {
+                properties.add(property.getKey() + "=" + property.getValue());
+            }
+            properties.sort(null);
+            descriptions.add(component.getName() + " " + component.getType().getName() + " "
+                + component.getArtifacts().get(0).getName() + " " + properties);
+        }
+        descriptions.addAll(getRelationNames(tadm));
+        return descriptions;
+    }
+
+    private List<String> getRelationNames(TechnologyAgnosticDeploymentModel tadm) {
+        List<String> names = new ArrayList<>();
+        for (Relation relation : tadm.getRelations()) {
+            names.add(relation.getName());
+        }
+        names.sort(null);
+        return names;
+    }
+
+}
@@ -0,0 +1,69 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+
+public class ArchiveEntryReaderTest {
+
+    @Test
+    public void readZipEntries_success() throws IOException, InvalidAnnotationException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            zip.putNextEntry(new ZipEntry("app/"));
+            zip.putNextEntry(new ZipEntry("app/service.yaml"));
+            zip.write("kind: Service".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("README.md"));
+            zip.write("readme".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(Map.of("app/service.yaml", "kind: Service", "README.md", "readme"),
+            readEntries(archive.toByteArray(), "manifests.zip"));
+    }
+
+    @Test
+    public void readTarGzEntries_success() throws IOException, InvalidAnnotationException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(archive)) {
+            writeTarEntry(gzip, "app", '5', new byte[0]);
+            writeTarEntry(gzip, "app/deployment.yml", '0', "kind: Deployment\n".getBytes(StandardCharsets.UTF_8));
+            writeTarEntry(gzip, "app/service.yaml", '0', "kind: Service".getBytes(StandardCharsets.UTF_8));
+            gzip.write(new byte[1024]);
+        }
+
+        Map<String, String> entries = readEntries(archive.toByteArray(), "manifests.tgz");
+        assertEquals(Map.of("app/deployment.yml", "kind: Deployment\n", "app/service.yaml", "kind: Service"), entries);
+    }
+
+    private Map<String, String> readEntries(byte[] archive, String fileName) throws IOException, InvalidAnnotationException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        ArchiveEntryReader.readEntries(new ByteArrayInputStream(archive), fileName,
+            (entryName, content) -> entries.put(entryName, new String(content.readAllBytes(), StandardCharsets.UTF_8)));
+        return entries;
+    }
+
+    private void writeTarEntry(GZIPOutputStream out, String name, char type, byte[] content) throws IOException {
+        byte[] header = new byte[512];
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        byte[] size = String.format("%011o", content.length).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(size, 0, header, 124, size.length);
+        header[156] = (byte) type;
+        out.write(header);
+        out.write(content);
+        out.write(new byte[(512 - content.length % 512) % 512]);
+    }
+
+}
@@ -0,0 +1,117 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.KubernetesDeployment;
+import ust.tad.kubernetesplugin.kubernetesmodel.service.KubernetesService;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+import ust.tad.kubernetesplugin.models.tsdm.Line;
+import ust.tad.kubernetesplugin.models.tsdm.LineRange;
+
+public class KubernetesManifestHandlerTest {
+
+    private static final List<String> MANIFEST = List.of(
+        "apiVersion: v1",
+        "kind: Service",
+        "metadata:",
+        "  name: orders",
+        "spec:",
+        "  ports:",
+        "  - name: http",
+        "    port: 80",
+        "    targetPort: 8080",
+        "  selector:",
+        "    app: orders",
+        "---",
+        "apiVersion: apps/v1",
+        "kind: Deployment",
+        "metadata:",
+        "  name: orders",
+        "  labels:",
+        "    app: orders",
+        "spec:",
+        "  replicas: 2",
+        "  template:",
+        "    spec:",
+        "      containers:",
+        "        - name: orders",
+        "          image: \"registry/orders:1.0\" # pinned",
+        "          ports:",
+        "            - containerPort: 8080",
+        "          env:",
+        "            - name: DB_URL",
+        "              value: jdbc:postgresql://postgres-inventory:5432/inventory",
+        "          args: |",
+        "            --name: not-a-key",
+        "---",
+        "kind: ConfigMap",
+        "data:",
+        "  a: b");
+
+    private ParseResult parse(List<String> lines) throws InvalidAnnotationException {
+        KubernetesManifestHandler handler = new KubernetesManifestHandler();
+        YamlEventReader reader = new YamlEventReader(handler);
+        lines.forEach(reader::readLine);
+        reader.finish();
+        return handler.getResult();
+    }
+
+    @Test
+    public void parseServiceAndDeployment_success() throws InvalidAnnotationException {
+        ParseResult result = parse(MANIFEST);
+
+        assertEquals(1, result.getServices().size());
+        KubernetesService service = result.getServices().iterator().next();
+        assertEquals("orders", service.getName());
+        assertEquals(80, service.getServicePorts().iterator().next().getPort());
+        assertEquals("8080", service.getServicePorts().iterator().next().getTargetPort());
+        assertEquals("app", service.getSelectors().iterator().next().getKey());
+
+        assertEquals(1, result.getDeployments().size());
+        KubernetesDeployment deployment = result.getDeployments().iterator().next();
+        assertEquals(2, deployment.getReplicas());
+        assertEquals("orders", deployment.getLabels().iterator().next().getValue());
+        Container container = deployment.getContainer().iterator().next();
+        assertEquals("registry/orders:1.0", container.getImage());
+        assertEquals(8080, container.getContainerPorts().iterator().next().getPort());
+        assertEquals("jdbc:postgresql://postgres-inventory:5432/inventory",
+            container.getEnvironmentVariables().iterator().next().getValue());
+    }
+
+    @Test
+    public void annotateLines_success() throws InvalidAnnotationException {
+        List<Line> lines = LineRange.toLines(parse(MANIFEST).getLineRanges());
+
+        assertEquals(MANIFEST.size() - 2, lines.size());
+        assertTrue(lines.stream().allMatch(Line::isAnalyzed));
+        assertEquals(0D, lines.get(0).getComprehensibility());
+        assertEquals(1D, lines.get(1).getComprehensibility());
+        assertTrue(lines.stream().filter(line -> line.getNumber() > 33).allMatch(line -> line.getComprehensibility() == 0D));
+    }
+
+    @Test
+    public void skipUnknownKind_success() throws InvalidAnnotationException {
+        ParseResult result = parse(List.of(
+            "kind: ConfigMap",
+            "data:",
+            "  dashboard.json: |",
+            "    {",
+            "      \"kind\": \"Service\"",
+            "    }",
+            "---",
+            "kind: Service",
+            "metadata:",
+            "  name: orders"));
+
+        assertEquals(new LineRange(1, 6, 0D, true), result.getLineRanges().get(0));
+        assertEquals(List.of("orders"), result.getServices().stream().map(KubernetesService::getName).collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,59 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+public class LineOffsetIndexTest {
+
+    @Test
+    public void indexLineOffsets_success() throws IOException {
+        Path file = Files.createTempFile("manifest", ".yaml");
+        try {
+            Files.write(file, "a\nbb\r\nccc".getBytes(StandardCharsets.UTF_8));
+            LineOffsetIndex lineOffsetIndex = LineOffsetIndex.build(file);
+
+            assertEquals(3, lineOffsetIndex.getNumberOfLines());
+            assertEquals(0, lineOffsetIndex.getOffset(1));
+            assertEquals(2, lineOffsetIndex.getOffset(2));
+            assertEquals(6, lineOffsetIndex.getOffset(3));
+            assertEquals(9, lineOffsetIndex.getOffset(4));
+            assertTrue(lineOffsetIndex.isUpToDate(9, Files.getLastModifiedTime(file).toMillis()));
+            assertFalse(lineOffsetIndex.isUpToDate(10, Files.getLastModifiedTime(file).toMillis()));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void indexBoundaryLines_success() throws IOException {
+        Path file = Files.createTempFile("manifest", ".yaml");
+        try {
+            Files.write(file, new byte[0]);
+            assertEquals(0, LineOffsetIndex.build(file).getNumberOfLines());
+            assertEquals(0, LineOffsetIndex.build(file).getOffset(1));
+
+            Files.write(file, "a\nbb\n".getBytes(StandardCharsets.UTF_8));
+            LineOffsetIndex lineOffsetIndex = LineOffsetIndex.build(file);
+            assertEquals(2, lineOffsetIndex.getNumberOfLines());
+            assertEquals(2, lineOffsetIndex.getOffset(2));
+            assertEquals(5, lineOffsetIndex.getOffset(3));
+
+            Files.write(file, "x\n".repeat(2000).getBytes(StandardCharsets.UTF_8));
+            lineOffsetIndex = LineOffsetIndex.build(file);
+            assertEquals(2000, lineOffsetIndex.getNumberOfLines());
+            assertEquals(2998, lineOffsetIndex.getOffset(1500));
+            assertEquals(4000, lineOffsetIndex.getOffset(2001));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package ust.tad.kubernetesplugin.analysis.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.Container;
+import ust.tad.kubernetesplugin.kubernetesmodel.deployment.EnvironmentVariable;
+import ust.tad.kubernetesplugin.models.tsdm.InvalidAnnotationException;
+
+public class MappedFileLineReaderTest {
+
+    @Test
+    public void readLinesAcrossWindows_success() throws IOException {
+        Path file = Files.createTempFile("manifest", ".yaml");
+        try {
+            Files.write(file, "kind: Service\r\nmetadata:\n  name: caf\u00e9\n---\nkind: Deployment".getBytes(StandardCharsets.UTF_8));
+            List<String> lines = new ArrayList<>();
+            MappedFileLineReader.readLines(file, 0, Long.MAX_VALUE, line -> lines.add(line.toString()), 16);
+
+            assertEquals(List.of("kind: Service", "metadata:", "  name: caf\u00e9", "---", "kind: Deployment"), lines);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void unescapeNonAsciiValues_success() throws IOException, InvalidAnnotationException {
+        Path file = Files.createTempFile("manifest", ".yaml");
+        try {
+            Files.write(file, String.join("\n",
+                "kind: Deployment",
+                "metadata:",
+                "  name: greeter",
+                "spec:",
+                "  template:",
+                "    spec:",
+                "      containers:",
+                "        - name: greeter",
+                "          env:",
+                "            - name: GREETING",
+                "              value: \"Gr\u00fc\u00dfe\\n\"",
+                "            - name: FAREWELL",
+                "              value: 'Tsch\u00fc''s'").getBytes(StandardCharsets.UTF_8));
+            KubernetesManifestHandler handler = new KubernetesManifestHandler();
+            YamlEventReader yamlEventReader = new YamlEventReader(handler);
+            MappedFileLineReader.readLines(file, yamlEventReader::readLine);
+            yamlEventReader.finish();
+
+            Container container = handler.getResult().getDeployments().iterator().next().getContainer().iterator().next();
+            List<String> values = new ArrayList<>();
+            for (EnvironmentVariable environmentVariable : container.getEnvironmentVariables()) {
+                values.add(environmentVariable.getKey() + "=" + environmentVariable.getValue());
+            }
+            values.sort(null);
+            assertEquals(List.of("FAREWELL=Tsch\u00fc's", "GREETING=Gr\u00fc\u00dfe\n"), values);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
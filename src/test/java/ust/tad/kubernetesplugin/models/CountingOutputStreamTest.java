@@ -0,0 +1,38 @@
+package ust.tad.kubernetesplugin.models;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class CountingOutputStreamTest {
+
+    @Test
+    public void countWrittenBytes_success() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        CountingOutputStream countingOutputStream = new CountingOutputStream(target);
+        byte[] bytes = "{\"number\":1,\"analyzed\":true}".getBytes(StandardCharsets.UTF_8);
+
+        countingOutputStream.write(bytes, 0, bytes.length);
+        countingOutputStream.write('\n');
+
+        assertEquals(bytes.length + 1, countingOutputStream.getCount());
+        assertArrayEquals("{\"number\":1,\"analyzed\":true}\n".getBytes(StandardCharsets.UTF_8), target.toByteArray());
+    }
+
+    @Test
+    public void exceedLimit_success() throws IOException {
+        CountingOutputStream countingOutputStream = new CountingOutputStream(OutputStream.nullOutputStream(), 4);
+
+        countingOutputStream.write(new byte[4], 0, 4);
+
+        assertThrows(CountingOutputStream.LimitExceededException.class, () -> countingOutputStream.write(0));
+    }
+
+}
@@ -0,0 +1,107 @@
+package ust.tad.kubernetesplugin.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import ust.tad.kubernetesplugin.models.tsdm.DeploymentModelContent;
+import ust.tad.kubernetesplugin.models.tsdm.Line;
+import ust.tad.kubernetesplugin.models.tsdm.TechnologySpecificDeploymentModel;
+
+public class JsonStreamCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final JsonStreamCodec jsonStreamCodec =
+        new JsonStreamCodec(objectMapper, Schedulers.boundedElastic(), meterRegistry, 8192, 4);
+
+    @Test
+    public void roundTripLargeModel_success() throws Exception {
+        TechnologySpecificDeploymentModel tsdm = createModel(400000);
+
+        TechnologySpecificDeploymentModel decoded = jsonStreamCodec
+            .decode(jsonStreamCodec.encode(tsdm, false), TechnologySpecificDeploymentModel.class)
+            .block();
+
+        assertEquals(tsdm, decoded);
+    }
+
+    @Test
+    public void encodeInChunks_success() throws Exception {
+        List<DataBuffer> chunks = jsonStreamCodec.encode(createModel(1000), false).collectList().block();
+
+        assertTrue(chunks.size() > 1);
+        for (DataBuffer chunk : chunks.subList(0, chunks.size() - 1)) {
+            assertEquals(8192, chunk.readableByteCount());
+        }
+    }
+
+    @Test
+    public void encodeWithGzip_success() throws Exception {
+        TechnologySpecificDeploymentModel tsdm = createModel(10000);
+
+        byte[] compressed = toBytes(jsonStreamCodec.encode(tsdm, true).collectList().block());
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(tsdm, objectMapper.readValue(inputStream, TechnologySpecificDeploymentModel.class));
+        }
+        double uncompressedBytes = meterRegistry.counter("models-service.compression.bytes", "stage", "uncompressed").count();
+        double compressedBytes = meterRegistry.counter("models-service.compression.bytes", "stage", "compressed").count();
+        assertEquals(compressed.length, compressedBytes);
+        assertEquals(objectMapper.writeValueAsString(tsdm).length(), uncompressedBytes);
+        assertTrue(compressedBytes * 10 < uncompressedBytes);
+    }
+
+    @Test
+    public void compareSizeWithThreshold_success() throws Exception {
+        assertFalse(jsonStreamCodec.exceedsSize(createModel(1), 2048).block());
+        assertTrue(jsonStreamCodec.exceedsSize(createModel(1000), 2048).block());
+    }
+
+    @Test
+    public void decodeEmptyBody_success() {
+        assertNull(jsonStreamCodec.decode(Flux.empty(), TechnologySpecificDeploymentModel.class).block());
+    }
+
+    private TechnologySpecificDeploymentModel createModel(int numberOfLines) throws Exception {
+        List<Line> lines = new ArrayList<>();
+        for (int number = 1; number <= numberOfLines; number++) {
+            lines.add(new Line(number, 1D, true));
+        }
+        DeploymentModelContent content = new DeploymentModelContent(new URL("file:/deployment.yaml"), lines);
+        return new TechnologySpecificDeploymentModel(UUID.randomUUID(), "kubernetes", List.of(), List.of(content));
+    }
+
+    private byte[] toBytes(List<DataBuffer> chunks) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        for (DataBuffer chunk : chunks) {
+            byte[] bytes = new byte[chunk.readableByteCount()];
+            chunk.read(bytes, 0, bytes.length);
+            outputStream.write(bytes);
+        }
+        return outputStream.toByteArray();
+    }
+
+}
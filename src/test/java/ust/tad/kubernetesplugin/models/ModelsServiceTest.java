@@ -0,0 +1,146 @@
+package ust.tad.kubernetesplugin.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import ust.tad.kubernetesplugin.TestBeans;
+import ust.tad.kubernetesplugin.models.tadm.TechnologyAgnosticDeploymentModel;
+import ust.tad.kubernetesplugin.models.tsdm.DeploymentModelContent;
+import ust.tad.kubernetesplugin.models.tsdm.Line;
+import ust.tad.kubernetesplugin.models.tsdm.TechnologySpecificDeploymentModel;
+
+public class ModelsServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final UUID transformationProcessId = UUID.randomUUID();
+
+    private final Map<String, String> responseBodies = new ConcurrentHashMap<>();
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+
+    private final AtomicInteger maxRequestsInFlight = new AtomicInteger();
+
+    /*
+     * Requests are answered after a delay, so concurrent requests are in flight at the same time.
+     */
+    private final WebClient webClient = WebClient.builder()
+        .baseUrl("http://models-service")
+        .exchangeFunction(request -> Mono.defer(() -> {
+                String contentEncoding = request.headers().getFirst(HttpHeaders.CONTENT_ENCODING);
+                requests.add(request.method() + " " + request.url().getPath() + (contentEncoding == null ? "" : " " + contentEncoding));
+                maxRequestsInFlight.accumulateAndGet(requestsInFlight.incrementAndGet(), Math::max);
+                return Mono.delay(Duration.ofMillis(200))
+                    .map(tick -> ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(responseBodies.getOrDefault(request.url().getPath(), ""))
+                        .build())
+                    .doFinally(signal -> requestsInFlight.decrementAndGet());
+            }))
+        .build();
+
+    @Test
+    public void fetchModelsConcurrently_success() throws Exception {
+        TechnologySpecificDeploymentModel tsdm = createTsdm(10);
+        TechnologyAgnosticDeploymentModel tadm = new TechnologyAgnosticDeploymentModel().transformationProcessId(transformationProcessId);
+        responseBodies.put("/technology-specific/" + transformationProcessId, objectMapper.writeValueAsString(tsdm));
+        responseBodies.put("/technology-agnostic/" + transformationProcessId, objectMapper.writeValueAsString(tadm));
+        ModelsService modelsService = createModelsService(false, false);
+
+        Mono<TechnologySpecificDeploymentModel> tsdmRequest = modelsService.getTechnologySpecificDeploymentModel(transformationProcessId);
+        Mono<TechnologyAgnosticDeploymentModel> tadmRequest = modelsService.getTechnologyAgnosticDeploymentModel(transformationProcessId);
+        assertEquals(List.of(), requests);
+        Tuple2<TechnologySpecificDeploymentModel, TechnologyAgnosticDeploymentModel> models = Mono.zip(tsdmRequest, tadmRequest).block();
+
+        assertEquals(tsdm, models.getT1());
+        assertEquals(tadm, models.getT2());
+        assertEquals(2, maxRequestsInFlight.get());
+    }
+
+    @Test
+    public void fetchMissingModel_success() {
+        ModelsService modelsService = createModelsService(false, false);
+
+        assertNull(modelsService.getTechnologySpecificDeploymentModel(transformationProcessId).block());
+    }
+
+    @Test
+    public void updateModelsConcurrently_success() throws Exception {
+        ModelsService modelsService = createModelsService(false, false);
+
+        modelsService.updateDeploymentModels(createTsdm(10), new TechnologyAgnosticDeploymentModel()).block();
+
+        assertEquals(2, requests.size());
+        assertEquals(List.of("POST /technology-agnostic", "POST /technology-specific"), requests.stream().sorted().collect(Collectors.toList()));
+        assertEquals(2, maxRequestsInFlight.get());
+    }
+
+    @Test
+    public void updateModelsInBatch_success() throws Exception {
+        ModelsService modelsService = createModelsService(true, false);
+
+        modelsService.updateDeploymentModels(createTsdm(10), new TechnologyAgnosticDeploymentModel()).block();
+
+        assertEquals(List.of("POST /batch"), requests);
+    }
+
+    @Test
+    public void compressLargeModelsOnly_success() throws Exception {
+        ModelsService modelsService = createModelsService(false, true);
+
+        modelsService.updateTechnologySpecificDeploymentModel(createTsdm(1)).block();
+        modelsService.updateTechnologySpecificDeploymentModel(createTsdm(1000)).block();
+
+        assertEquals(List.of("POST /technology-specific", "POST /technology-specific gzip"), requests);
+    }
+
+    private ModelsService createModelsService(boolean batchUpdateEnabled, boolean compressionEnabled) {
+        return TestBeans.initialize(new ModelsService(),
+            "modelsServiceApiClient", webClient,
+            "objectMapper", objectMapper,
+            "modelsServiceTransferScheduler", Schedulers.boundedElastic(),
+            "meterRegistry", new SimpleMeterRegistry(),
+            "batchUpdateEnabled", batchUpdateEnabled,
+            "batchUpdatePath", "/batch",
+            "streamingChunkSize", 8192,
+            "streamingPrefetch", 4,
+            "compressionEnabled", compressionEnabled,
+            "compressionThresholdBytes", 2048L);
+    }
+
+    private TechnologySpecificDeploymentModel createTsdm(int numberOfLines) throws Exception {
+        List<Line> lines = new ArrayList<>();
+        for (int number = 1; number <= numberOfLines; number++) {
+            lines.add(new Line(number, 1D, true));
+        }
+        DeploymentModelContent content = new DeploymentModelContent(new URL("file:/deployment.yaml"), lines);
+        return new TechnologySpecificDeploymentModel(transformationProcessId, "kubernetes", List.of(), List.of(content));
+    }
+
+}
@@ -0,0 +1,73 @@
+package ust.tad.kubernetesplugin.models.tadm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class ListIndexTest {
+
+    @Test
+    public void lookupAbsentNamesWithoutRebuild_success() {
+        CountingList<Component> components = new CountingList<>();
+        components.add(createComponent("orders"));
+        components.add(createComponent("payments"));
+        ListIndex<Component> index = new ListIndex<>(Component::getName);
+
+        assertTrue(index.get(components, "inventory").isEmpty());
+        int readsAfterBuild = components.reads;
+        for (int i = 0; i < 100; i++) {
+            assertTrue(index.get(components, "inventory").isEmpty());
+        }
+        assertEquals(readsAfterBuild, components.reads);
+
+        assertEquals("payments", index.get(components, "payments").get().getName());
+        assertEquals(readsAfterBuild + 1, components.reads);
+    }
+
+    @Test
+    public void lookupAfterMutation_success() {
+        List<Component> components = new ArrayList<>(List.of(createComponent("orders")));
+        ListIndex<Component> index = new ListIndex<>(Component::getName);
+        assertTrue(index.get(components, "payments").isEmpty());
+
+        Component payments = createComponent("payments");
+        components.add(payments);
+        assertEquals(Optional.of(payments), index.get(components, "payments"));
+
+        Component inventory = createComponent("inventory");
+        components.set(1, inventory);
+        assertTrue(index.get(components, "payments").isEmpty());
+        assertEquals(Optional.of(inventory), index.get(components, "inventory"));
+
+        index.invalidate();
+        components.get(0).setName("shipping");
+        assertEquals("shipping", index.get(components, "shipping").get().getName());
+    }
+
+    private Component createComponent(String name) {
+        Component component = new Component();
+        component.setName(name);
+        return component;
+    }
+
+    /*
+     * Counts the reads of elements, so rebuilds of the index can be observed.
+     */
+    private static class CountingList<E> extends ArrayList<E> {
+
+        private int reads;
+
+        @Override
+        public E get(int index) {
+            reads++;
+            return super.get(index);
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package ust.tad.kubernetesplugin.models.tadm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class TechnologyAgnosticDeploymentModelTest {
+
+    @Test
+    public void lookupComponentsAfterMutation_success() {
+        TechnologyAgnosticDeploymentModel tadm = new TechnologyAgnosticDeploymentModel();
+        Component orders = new Component();
+        orders.setName("orders");
+        tadm.addComponents(List.of(orders));
+        assertEquals(Optional.of(orders), tadm.getComponentByName("orders"));
+
+        Component payments = new Component();
+        payments.setName("payments");
+        tadm.getComponents().add(payments);
+        assertEquals(Optional.of(payments), tadm.getComponentByName("payments"));
+
+        orders.setName("inventory");
+        assertTrue(tadm.getComponentByName("orders").isEmpty());
+        assertEquals(Optional.of(orders), tadm.getComponentByName("inventory"));
+    }
+
+    @Test
+    public void lookupReplacedElements_success() {
+        TechnologyAgnosticDeploymentModel tadm = new TechnologyAgnosticDeploymentModel();
+        ComponentType containerRuntime = new ComponentType();
+        containerRuntime.setName("container_runtime");
+        Component orders = new Component();
+        orders.setName("orders");
+        Component runtime = new Component();
+        runtime.setName("docker");
+        runtime.setType(containerRuntime);
+        tadm.addComponentTypes(List.of(containerRuntime));
+        tadm.addComponents(List.of(orders, runtime));
+        assertEquals(Optional.of(orders), tadm.getComponentByName("orders"));
+        assertEquals(Optional.of(runtime), tadm.getComponentByType(containerRuntime));
+
+        Component payments = new Component();
+        payments.setName("orders");
+        tadm.getComponents().set(0, payments);
+        assertEquals(Optional.of(payments), tadm.getComponentByName("orders"));
+
+        containerRuntime.setDescription("changed");
+        assertEquals(Optional.of(runtime), tadm.getComponentByType(containerRuntime));
+        assertEquals(Optional.of(containerRuntime), tadm.getComponentTypeByName("container_runtime"));
+
+        ComponentType kubernetes = new ComponentType();
+        kubernetes.setName("kubernetes");
+        tadm.getComponentTypes().set(0, kubernetes);
+        assertTrue(tadm.getComponentTypeByName("container_runtime").isEmpty());
+        assertEquals(Optional.of(kubernetes), tadm.getComponentTypeByName("kubernetes"));
+    }
+
+    @Test
+    public void addRelationsWithoutDuplicates_success() throws InvalidRelationException {
+        TechnologyAgnosticDeploymentModel tadm = new TechnologyAgnosticDeploymentModel();
+        RelationType connectsTo = new RelationType();
+        connectsTo.setName("ConnectsTo");
+        Component orders = new Component();
+        orders.setName("orders");
+        Component database = new Component();
+        database.setName("database");
+        tadm.addComponents(List.of(orders, database));
+
+        tadm.addRelations(List.of(createRelation(connectsTo, orders, database)));
+        tadm.addRelations(List.of(createRelation(connectsTo, orders, database), createRelation(connectsTo, database, orders)));
+
+        assertEquals(2, tadm.getRelations().size());
+        assertEquals(1, tadm.getOutgoingRelations(orders).size());
+        assertEquals(database, tadm.getOutgoingRelations(orders).get(0).getTarget());
+        assertEquals(1, tadm.getIncomingRelations(orders).size());
+        assertEquals(database, tadm.getIncomingRelations(orders).get(0).getSource());
+
+        List<Relation> loadedRelations = new ArrayList<>(tadm.getRelations());
+        loadedRelations.add(createRelation(connectsTo, database, orders));
+        tadm.setRelations(loadedRelations);
+        assertEquals(3, tadm.getRelations().size());
+        assertEquals(1, tadm.getOutgoingRelations(database).size());
+    }
+
+    private Relation createRelation(RelationType type, Component source, Component target) throws InvalidRelationException {
+        Relation relation = new Relation();
+        relation.setType(type);
+        relation.setSource(source);
+        relation.setTarget(target);
+        return relation;
+    }
+
+}
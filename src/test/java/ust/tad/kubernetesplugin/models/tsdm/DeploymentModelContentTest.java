@@ -0,0 +1,45 @@
+package ust.tad.kubernetesplugin.models.tsdm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class DeploymentModelContentTest {
+
+    @Test
+    public void compareLinesAndLineRanges_success() throws MalformedURLException, InvalidAnnotationException, InvalidNumberOfLinesException {
+        URL location = new URL("file:/deployment.yaml");
+        DeploymentModelContent lines = new DeploymentModelContent(location, new ArrayList<>(List.of(
+            new Line(1, 1D, true), new Line(2, 1D, true), new Line(3, 0D, true))));
+        DeploymentModelContent lineRanges = new DeploymentModelContent().location(location).lineRanges(List.of(
+            new LineRange(1, 1, 1D, true), new LineRange(2, 2, 1D, true), new LineRange(3, 3, 0D, true)));
+
+        assertEquals(lines, lineRanges);
+        assertEquals(lineRanges, lines);
+        assertEquals(lines.hashCode(), lineRanges.hashCode());
+
+        lines.addLine(new Line(4, 0D, true));
+        assertNotEquals(lines, lineRanges);
+    }
+
+    @Test
+    public void deriveLinesWithoutChangingRanges_success() throws MalformedURLException, InvalidAnnotationException, InvalidNumberOfLinesException {
+        List<LineRange> storedLineRanges = List.of(new LineRange(1, 3, 1D, true));
+        DeploymentModelContent content = new DeploymentModelContent().location(new URL("file:/deployment.yaml")).lineRanges(storedLineRanges);
+        int hashCode = content.hashCode();
+
+        List<Line> lines = content.getLines();
+        lines.clear();
+
+        assertEquals(3, content.getLines().size());
+        assertEquals(storedLineRanges, content.getLineRanges());
+        assertEquals(hashCode, content.hashCode());
+    }
+
+}